@@ -3,10 +3,12 @@ package lk.ac.pdn.sms;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import io.github.cdimascio.dotenv.Dotenv;
 
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 public class SmsUopApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,61 @@
+package lk.ac.pdn.sms.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Application child rows (members, committee, advisory board, planning events...) use
+ * pooled ids from Hibernate's emulated sequence tables ({@code <table>_seq}) instead of
+ * AUTO_INCREMENT, which is what lets Hibernate send a 300-member list as JDBC batches.
+ * Tables created before the switch already hold AUTO_INCREMENT ids, so each sequence is
+ * moved past the current maximum id before the first insert.
+ */
+@Component
+public class IdSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of(
+            "advisory_board_members",
+            "committee_members",
+            "society_members",
+            "planning_events",
+            "previous_activities",
+            "renewal_advisory_board_members",
+            "renewal_committee_members",
+            "renewal_society_members",
+            "renewal_planning_events");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depending on the EntityManagerFactory makes this run after Hibernate has updated the schema
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void alignSequences() {
+        for (String table : TABLES) {
+            try {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                // The pooled optimizer treats next_val as the top of its first block
+                long floor = maxId + ALLOCATION_SIZE + 1;
+                int updated = jdbcTemplate.update("UPDATE " + table + "_seq SET next_val = ? WHERE next_val < ?", floor, floor);
+                if (updated > 0) {
+                    log.info("Moved {}_seq past existing id {}", table, maxId);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not align id sequence for {}: {}", table, e.getMessage());
+            }
+        }
+    }
+}
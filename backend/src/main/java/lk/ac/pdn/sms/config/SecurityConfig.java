@@ -68,6 +68,14 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/societies/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/societies/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/events/request").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/events/slot-check", "/api/events/availability", "/api/events/upcoming",
+                                "/api/events/calendar.ics").permitAll()
+                        // Applicant uploads; MemberImportService requires the application's upload token
+                        .requestMatchers(HttpMethod.POST, "/api/societies/registrations/*/members/import").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/renewals/*/members/import").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/submissions/registrations", "/api/submissions/events").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/submissions/*").permitAll()
+                        .requestMatchers("/api/drafts/registrations", "/api/drafts/registrations/**").permitAll()
                         .requestMatchers("/api/validation/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/oauth2/**", "/login/**").permitAll()
@@ -143,7 +151,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "Idempotent-Replayed", "Location", "ETag"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -1,22 +1,28 @@
 package lk.ac.pdn.sms.controller;
 
 // ... imports ...
+import lk.ac.pdn.sms.dto.ActivityLogFilter;
 import lk.ac.pdn.sms.dto.AdminUserManagementDto;
 import lk.ac.pdn.sms.dto.ApprovalDto;
 import lk.ac.pdn.sms.entity.AdminUser;
+import lk.ac.pdn.sms.service.AdminPrincipalCache;
 import lk.ac.pdn.sms.service.AdminService;
 import lk.ac.pdn.sms.service.ApprovalService;
+import lk.ac.pdn.sms.service.ActivityLogExportService;
 import lk.ac.pdn.sms.service.ActivityLogService;
-import lk.ac.pdn.sms.repository.AdminUserRepository; // Import Repo
+import lk.ac.pdn.sms.service.PdfExportService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication; // Generic Auth
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -28,14 +34,19 @@ public class AdminController {
     private final ApprovalService approvalService;
     private final AdminService adminService;
     private final ActivityLogService activityLogService;
+    private final PdfExportService pdfExportService;
+    private final ActivityLogExportService activityLogExportService;
 
     @Autowired
-    private AdminUserRepository adminUserRepository; // To fetch data for Form Login users
+    private AdminPrincipalCache adminPrincipalCache; // To fetch data for Form Login users
 
-    public AdminController(ApprovalService approvalService, AdminService adminService, ActivityLogService activityLogService) {
+    public AdminController(ApprovalService approvalService, AdminService adminService, ActivityLogService activityLogService,
+                           PdfExportService pdfExportService, ActivityLogExportService activityLogExportService) {
         this.approvalService = approvalService;
         this.adminService = adminService;
         this.activityLogService = activityLogService;
+        this.pdfExportService = pdfExportService;
+        this.activityLogExportService = activityLogExportService;
     }
 
     // Helper method to extract AdminUser info from ANY authentication source
@@ -54,14 +65,9 @@ public class AdminController {
         }
         else if (principal instanceof UserDetails) {
             UserDetails userDetails = (UserDetails) principal;
-            // Fetch full details from DB because UserDetails only has username/password/role
-            AdminUser dbUser = adminUserRepository.findByEmail(userDetails.getUsername())
+            // Full details come from the cache because UserDetails only has username/password/role
+            admin = adminPrincipalCache.findByEmail(userDetails.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
-            admin.setId(dbUser.getId());
-            admin.setName(dbUser.getName());
-            admin.setEmail(dbUser.getEmail());
-            admin.setRole(dbUser.getRole());
-            admin.setFaculty(dbUser.getFaculty());
         }
         return admin;
     }
@@ -143,13 +149,96 @@ public class AdminController {
         return ResponseEntity.ok(deactivatedAdmin);
     }
 
+    // Year-end bulk download of approved registration/renewal letters
+    @GetMapping("/exports/applications")
+    @PreAuthorize("hasAnyRole('ASSISTANT_REGISTRAR', 'VICE_CHANCELLOR', 'STUDENT_SERVICE')")
+    public ResponseEntity<StreamingResponseBody> exportApplicationPdfs(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String faculty,
+            @RequestParam(defaultValue = "all") String type) {
+        String fileName = "applications-" + (year != null ? year : "all") + ".zip";
+        StreamingResponseBody body = out -> pdfExportService.writeApprovedApplicationsZip(year, faculty, type, out);
+        return ResponseEntity.ok()
+                .header("Content-Type", "application/zip")
+                .header("Content-Disposition", "attachment; filename=" + fileName)
+                .body(body);
+    }
+
+    // Newest first, recent months unless 'from' is given; pass back nextCursor from the previous response to get the next page
     @GetMapping("/activity-logs")
-    public ResponseEntity<?> getActivityLogs(
+    public ResponseEntity<Map<String, Object>> getActivityLogs(
             @RequestParam(required = false) String user,
             @RequestParam(required = false) String action,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String target,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok().build();
+        ActivityLogFilter filter = ActivityLogFilter.builder()
+                .user(user)
+                .action(action)
+                .target(target)
+                .from(from)
+                .to(to)
+                .build();
+        return ResponseEntity.ok(activityLogService.getLogPage(filter, cursor, size));
+    }
+
+    // Full audit trail for a date range (recent months when 'from' is omitted), oldest first, streamed as CSV or NDJSON
+    @GetMapping("/activity-logs/export")
+    @PreAuthorize("hasAnyRole('ASSISTANT_REGISTRAR', 'VICE_CHANCELLOR', 'STUDENT_SERVICE')")
+    public ResponseEntity<StreamingResponseBody> exportActivityLogs(
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String target,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ActivityLogFilter filter = ActivityLogFilter.builder()
+                .user(user)
+                .action(action)
+                .target(target)
+                .from(from)
+                .to(to)
+                .build();
+        String fmt = ActivityLogExportService.checkFormat(format);
+        StreamingResponseBody body = out -> activityLogExportService.export(filter, fmt, gzip, out);
+
+        // Gzip is delivered as a .gz file rather than Content-Encoding, so browsers save it compressed
+        return ResponseEntity.ok()
+                .header("Content-Type", gzip ? "application/gzip" : ActivityLogExportService.contentType(fmt))
+                .header("Content-Disposition", "attachment; filename=activity-logs." + fmt + (gzip ? ".gz" : ""))
+                .body(body);
+    }
+
+    @GetMapping("/activity-logs/metrics")
+    @PreAuthorize("hasAnyRole('ASSISTANT_REGISTRAR', 'VICE_CHANCELLOR', 'STUDENT_SERVICE')")
+    public ResponseEntity<Map<String, Object>> getActivityLogMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("export", activityLogExportService.getMetrics());
+        metrics.put("searchIndex", activityLogService.getSearchIndexStatistics());
+        return ResponseEntity.ok(metrics);
+    }
+
+    // Times one search through the trigram index and through plain LIKE on the same rows
+    @GetMapping("/activity-logs/search-benchmark")
+    @PreAuthorize("hasAnyRole('ASSISTANT_REGISTRAR', 'VICE_CHANCELLOR', 'STUDENT_SERVICE')")
+    public ResponseEntity<Map<String, Object>> benchmarkActivityLogSearch(
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String target,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "3") int runs) {
+        ActivityLogFilter filter = ActivityLogFilter.builder()
+                .user(user)
+                .action(action)
+                .target(target)
+                .from(from)
+                .to(to)
+                .build();
+        return ResponseEntity.ok(activityLogService.compareSearch(filter, runs));
     }
 
     private void logAdminAction(String action, String target, Authentication authentication) {
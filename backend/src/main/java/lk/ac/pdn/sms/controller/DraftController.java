@@ -0,0 +1,93 @@
+package lk.ac.pdn.sms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lk.ac.pdn.sms.entity.ApplicationDraft;
+import lk.ac.pdn.sms.exception.BadRequestException;
+import lk.ac.pdn.sms.exception.ResourceNotFoundException;
+import lk.ac.pdn.sms.service.DraftService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Autosaved drafts under {@code /api/drafts/registrations} and {@code /api/drafts/renewals}.
+ * The draft version is returned as the ETag and accepted back in {@code If-Match}.
+ */
+@RestController
+@RequestMapping("/api/drafts/{kind}")
+@CrossOrigin(origins = "http://localhost:5173")
+public class DraftController {
+
+    private final DraftService draftService;
+
+    public DraftController(DraftService draftService) {
+        this.draftService = draftService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createDraft(@PathVariable String kind,
+                                                           @RequestBody(required = false) JsonNode content) {
+        Map<String, Object> draft = draftService.createDraft(typeOf(kind), content);
+        return withVersion(ResponseEntity.status(HttpStatus.CREATED), draft);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getDraft(@PathVariable String kind, @PathVariable String id) {
+        Map<String, Object> draft = draftService.getDraft(typeOf(kind), id);
+        return withVersion(ResponseEntity.ok(), draft);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {DraftService.MERGE_PATCH, DraftService.JSON_PATCH})
+    public ResponseEntity<Map<String, Object>> patchDraft(@PathVariable String kind,
+                                                          @PathVariable String id,
+                                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                          @RequestBody JsonNode patch) {
+        Map<String, Object> draft = draftService.patchDraft(typeOf(kind), id, contentType, patch, parseVersion(ifMatch));
+        return withVersion(ResponseEntity.ok(), draft);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteDraft(@PathVariable String kind, @PathVariable String id) {
+        draftService.deleteDraft(typeOf(kind), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/submit")
+    public ResponseEntity<Object> submitDraft(@PathVariable String kind, @PathVariable String id) {
+        return ResponseEntity.ok(draftService.submitDraft(typeOf(kind), id));
+    }
+
+    private static ApplicationDraft.DraftType typeOf(String kind) {
+        switch (kind) {
+            case "registrations":
+                return ApplicationDraft.DraftType.REGISTRATION;
+            case "renewals":
+                return ApplicationDraft.DraftType.RENEWAL;
+            default:
+                throw new ResourceNotFoundException("Unknown draft type: " + kind);
+        }
+    }
+
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> withVersion(ResponseEntity.BodyBuilder builder, Map<String, Object> draft) {
+        return builder.eTag("\"" + draft.get("version") + "\"").body(draft);
+    }
+}
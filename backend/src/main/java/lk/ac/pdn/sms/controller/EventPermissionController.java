@@ -1,33 +1,123 @@
 package lk.ac.pdn.sms.controller;
 
+import lk.ac.pdn.sms.dto.ApprovalDto;
 import lk.ac.pdn.sms.dto.EventPermissionDto;
+import lk.ac.pdn.sms.dto.EventSearchFilter;
+import lk.ac.pdn.sms.entity.AdminUser;
 import lk.ac.pdn.sms.entity.EventPermission;
+import lk.ac.pdn.sms.service.ApprovalService;
+import lk.ac.pdn.sms.service.CalendarFeedService;
+import lk.ac.pdn.sms.service.EventBudgetService;
 import lk.ac.pdn.sms.service.EventPermissionService;
+import lk.ac.pdn.sms.service.IdempotencyService;
+import lk.ac.pdn.sms.service.PdfCacheService;
+import lk.ac.pdn.sms.service.UpcomingEventsFeed;
+import lk.ac.pdn.sms.service.VenueAvailabilityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/events")
 @CrossOrigin(origins = "http://localhost:5173")
 public class EventPermissionController {
 
     private final EventPermissionService eventPermissionService;
+    private final PdfCacheService pdfCacheService;
+    private final IdempotencyService idempotencyService;
+    private final ApprovalService approvalService;
+    private final VenueAvailabilityService venueAvailabilityService;
+    private final UpcomingEventsFeed upcomingEventsFeed;
+    private final CalendarFeedService calendarFeedService;
+    private final EventBudgetService eventBudgetService;
 
-    public EventPermissionController(EventPermissionService eventPermissionService) {
+    public EventPermissionController(EventPermissionService eventPermissionService, PdfCacheService pdfCacheService,
+                                     IdempotencyService idempotencyService, ApprovalService approvalService,
+                                     VenueAvailabilityService venueAvailabilityService, UpcomingEventsFeed upcomingEventsFeed,
+                                     CalendarFeedService calendarFeedService, EventBudgetService eventBudgetService) {
         this.eventPermissionService = eventPermissionService;
+        this.pdfCacheService = pdfCacheService;
+        this.idempotencyService = idempotencyService;
+        this.approvalService = approvalService;
+        this.venueAvailabilityService = venueAvailabilityService;
+        this.upcomingEventsFeed = upcomingEventsFeed;
+        this.calendarFeedService = calendarFeedService;
+        this.eventBudgetService = eventBudgetService;
     }
 
     // Public Endpoint for Submission
     @PostMapping("/request")
-    public ResponseEntity<EventPermission> requestPermission(@RequestBody @Valid EventPermissionDto dto) {
-        EventPermission createdEvent = eventPermissionService.requestPermission(dto);
-        return ResponseEntity.ok(createdEvent);
+    public ResponseEntity<EventPermission> requestPermission(
+            @RequestBody @Valid EventPermissionDto dto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        IdempotencyService.Result<EventPermission> result = idempotencyService.execute(
+                "event", idempotencyKey, dto, () -> eventPermissionService.requestPermission(dto));
+        return ResponseEntity.ok()
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.value());
+    }
+
+    // Public check of whether a venue is free, before submitting a request
+    @GetMapping("/slot-check")
+    public ResponseEntity<Map<String, Object>> checkSlot(
+            @RequestParam String place,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime timeFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime timeTo) {
+        return ResponseEntity.ok(eventPermissionService.checkSlot(place, date, timeFrom, timeTo));
+    }
+
+    // Approved events for the home page, soonest first
+    @GetMapping("/upcoming")
+    public ResponseEntity<List<UpcomingEventsFeed.Item>> getUpcomingEvents(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(upcomingEventsFeed.getUpcoming(limit, days));
+    }
+
+    // Free/busy per venue in 15-minute slots; all venues with bookings when place is omitted
+    @GetMapping("/availability")
+    public ResponseEntity<Map<String, Object>> getAvailability(
+            @RequestParam(required = false) String place,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(venueAvailabilityService.getAvailability(place, from, to));
+    }
+
+    // Subscribable iCalendar feed of approved events, for all societies, one faculty or one society
+    @GetMapping("/calendar.ics")
+    public void getCalendar(@RequestParam(required = false) String faculty,
+                            @RequestParam(required = false) String society,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = calendarFeedService.etag(faculty, society);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.equals("*") || List.of(ifNoneMatch.split("\\s*,\\s*")).contains(etag))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType("text/calendar; charset=utf-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"events.ics\"");
+        calendarFeedService.write(faculty, society, response.getOutputStream());
     }
 
     // Public/Protected Endpoint to View Single Event
@@ -36,6 +126,12 @@ public class EventPermissionController {
         return ResponseEntity.ok(eventPermissionService.getEventById(id));
     }
 
+    @GetMapping("/download/{id}")
+    public void downloadEventPDF(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path pdf = eventPermissionService.generateEventPermissionPDF(id);
+        pdfCacheService.serve(pdf, "event-permission.pdf", request, response);
+    }
+
     // --- Admin Endpoints ---
 
     @GetMapping("/admin/all")
@@ -45,4 +141,71 @@ public class EventPermissionController {
             Pageable pageable) {
         return ResponseEntity.ok(eventPermissionService.getAllEvents(status, pageable));
     }
-}
\ No newline at end of file
+
+    // Filtered event list for the AR/VC tables; pass nextCursor back as cursor for the next page
+    @GetMapping("/admin/search")
+    @PreAuthorize("hasAnyRole('ASSISTANT_REGISTRAR', 'VICE_CHANCELLOR', 'STUDENT_SERVICE')")
+    public ResponseEntity<Map<String, Object>> searchEvents(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String society,
+            @RequestParam(required = false) String place,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        EventSearchFilter filter = EventSearchFilter.builder()
+                .status(status)
+                .society(society)
+                .place(place)
+                .from(from)
+                .to(to)
+                .build();
+        return ResponseEntity.ok(eventPermissionService.searchEvents(filter, cursor, size));
+    }
+
+    // Budget totals per society, faculty or month; approved events unless status is given
+    @GetMapping("/admin/budget-analytics")
+    @PreAuthorize("hasAnyRole('ASSISTANT_REGISTRAR', 'VICE_CHANCELLOR', 'STUDENT_SERVICE')")
+    public ResponseEntity<Map<String, Object>> getBudgetAnalytics(
+            @RequestParam(defaultValue = "society") String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status) {
+        return ResponseEntity.ok(eventBudgetService.getAnalytics(groupBy, from, to, status));
+    }
+
+    @GetMapping("/admin/{id}/conflicts")
+    @PreAuthorize("hasAnyRole('ASSISTANT_REGISTRAR', 'VICE_CHANCELLOR', 'STUDENT_SERVICE')")
+    public ResponseEntity<List<EventPermission>> getConflictingEvents(@PathVariable Long id) {
+        return ResponseEntity.ok(eventPermissionService.getConflictingEvents(id));
+    }
+
+    @PostMapping("/admin/approve/{id}")
+    @PreAuthorize("hasAnyRole('ASSISTANT_REGISTRAR', 'VICE_CHANCELLOR')")
+    public ResponseEntity<?> approveEvent(@PathVariable Long id, @RequestBody ApprovalDto dto, Authentication authentication) {
+        approvalService.processEventPermissionApproval(id, dto, callerRole(authentication));
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/admin/reject/{id}")
+    @PreAuthorize("hasAnyRole('ASSISTANT_REGISTRAR', 'VICE_CHANCELLOR')")
+    public ResponseEntity<?> rejectEvent(@PathVariable Long id, @RequestBody ApprovalDto dto, Authentication authentication) {
+        dto.setStatus("REJECTED");
+        approvalService.processEventPermissionApproval(id, dto, callerRole(authentication));
+        return ResponseEntity.ok().build();
+    }
+
+    // The approver role among the caller's ROLE_ authorities
+    private static AdminUser.Role callerRole(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name.equals("ROLE_ASSISTANT_REGISTRAR")) {
+                return AdminUser.Role.ASSISTANT_REGISTRAR;
+            }
+            if (name.equals("ROLE_VICE_CHANCELLOR")) {
+                return AdminUser.Role.VICE_CHANCELLOR;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,96 @@
+package lk.ac.pdn.sms.controller;
+
+import lk.ac.pdn.sms.exception.BadRequestException;
+import lk.ac.pdn.sms.service.PDFService;
+import lk.ac.pdn.sms.service.PdfCacheService;
+import lk.ac.pdn.sms.service.PdfRenderJobService;
+import lk.ac.pdn.sms.service.PdfRenderJobService.JobStatus;
+import lk.ac.pdn.sms.service.PdfRenderJobService.RenderJob;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/pdf-jobs")
+@CrossOrigin(origins = "http://localhost:5173")
+public class PdfJobController {
+
+    private static final long SUBSCRIBE_TIMEOUT_MS = 5 * 60 * 1000L;
+
+    private final PdfRenderJobService renderJobService;
+    private final PdfCacheService pdfCacheService;
+    private final PDFService pdfService;
+
+    public PdfJobController(PdfRenderJobService renderJobService, PdfCacheService pdfCacheService, PDFService pdfService) {
+        this.renderJobService = renderJobService;
+        this.pdfCacheService = pdfCacheService;
+        this.pdfService = pdfService;
+    }
+
+    // Body: { "type": "registration" | "renewal" | "event", "id": 42 }
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submitJob(@RequestBody Map<String, Object> request) {
+        Object type = request.get("type");
+        if (!(type instanceof String) || ((String) type).isBlank()) {
+            throw new BadRequestException("Document type is required");
+        }
+        Object rawId = request.get("id");
+        if (rawId == null) {
+            throw new BadRequestException("Document id is required");
+        }
+        long id;
+        try {
+            id = Long.parseLong(rawId.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Document id must be a number: " + rawId);
+        }
+        RenderJob job = renderJobService.submit((String) type, id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toMap());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJobStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(renderJobService.getJob(jobId).toMap());
+    }
+
+    // Server-sent event stream that emits once, when the job finishes
+    @GetMapping("/{jobId}/events")
+    public SseEmitter subscribe(@PathVariable String jobId) {
+        RenderJob job = renderJobService.getJob(jobId);
+        SseEmitter emitter = new SseEmitter(SUBSCRIBE_TIMEOUT_MS);
+        job.getResult().whenComplete((file, error) -> {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(job.toMap()));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    @GetMapping("/{jobId}/download")
+    public void download(@PathVariable String jobId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        RenderJob job = renderJobService.getJob(jobId);
+        if (job.getStatus() != JobStatus.COMPLETED) {
+            response.sendError(HttpServletResponse.SC_CONFLICT, "Render job is " + job.getStatus());
+            return;
+        }
+        pdfCacheService.serve(renderJobService.resolveFile(job), jobId + ".pdf", request, response);
+    }
+
+    @GetMapping("/metrics")
+    @PreAuthorize("hasAnyRole('ASSISTANT_REGISTRAR', 'VICE_CHANCELLOR', 'STUDENT_SERVICE')")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = pdfService.getRenderMetrics();
+        metrics.put("cache", pdfCacheService.getStatistics());
+        return ResponseEntity.ok(metrics);
+    }
+}
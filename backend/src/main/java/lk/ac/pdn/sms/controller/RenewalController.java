@@ -3,6 +3,10 @@ package lk.ac.pdn.sms.controller;
 import lk.ac.pdn.sms.dto.SocietyRenewalDto;
 import lk.ac.pdn.sms.dto.ApprovalDto;
 import lk.ac.pdn.sms.entity.SocietyRenewal;
+import lk.ac.pdn.sms.service.IdempotencyService;
+import lk.ac.pdn.sms.service.MemberImportService;
+import lk.ac.pdn.sms.service.PdfCacheService;
+import lk.ac.pdn.sms.service.RenewalDiffService;
 import lk.ac.pdn.sms.service.RenewalService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -11,9 +15,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/renewals")
@@ -23,10 +32,42 @@ public class RenewalController {
     @Autowired
     private RenewalService renewalService;
 
+    @Autowired
+    private PdfCacheService pdfCacheService;
+
+    @Autowired
+    private MemberImportService memberImportService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private RenewalDiffService renewalDiffService;
+
     @PostMapping("/submit")
-    public ResponseEntity<SocietyRenewal> submitRenewal(@Valid @RequestBody SocietyRenewalDto renewalDto) {
-        SocietyRenewal renewal = renewalService.submitRenewal(renewalDto);
-        return ResponseEntity.ok(renewal);
+    public ResponseEntity<SocietyRenewal> submitRenewal(
+            @Valid @RequestBody SocietyRenewalDto renewalDto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        IdempotencyService.Result<SocietyRenewal> result = idempotencyService.execute(
+                "renewal", idempotencyKey, renewalDto, () -> renewalService.submitRenewal(renewalDto));
+        return ResponseEntity.ok()
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.value());
+    }
+
+    // Renewal form pre-filled from the society's last approved application
+    @GetMapping("/prefill/{societyName}")
+    public ResponseEntity<SocietyRenewalDto> getRenewalPrefill(@PathVariable String societyName) {
+        return ResponseEntity.ok(renewalService.getRenewalPrefill(societyName));
+    }
+
+    // Body is the raw CSV ("reg no,name" per line); it is streamed, not buffered
+    @PostMapping(value = "/{id}/members/import", consumes = "text/csv")
+    public ResponseEntity<Map<String, Object>> importMembers(@PathVariable Long id,
+                                                             @RequestParam String applicantRegNo,
+                                                             @RequestHeader(value = MemberImportService.UPLOAD_TOKEN_HEADER, required = false) String uploadToken,
+                                                             HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(memberImportService.importRenewalMembers(id, applicantRegNo, uploadToken, request.getInputStream()));
     }
 
     @GetMapping("/admin/pending")
@@ -40,6 +81,13 @@ public class RenewalController {
         return ResponseEntity.ok(renewals);
     }
 
+    // Changed fields and member additions/removals since the society's previous approved record
+    @GetMapping("/admin/{id}/diff")
+    @PreAuthorize("hasRole('DEAN') or hasRole('ASSISTANT_REGISTRAR') or hasRole('VICE_CHANCELLOR')")
+    public ResponseEntity<Map<String, Object>> getRenewalDiff(@PathVariable Long id) {
+        return ResponseEntity.ok(renewalDiffService.diff(id));
+    }
+
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('DEAN') or hasRole('ASSISTANT_REGISTRAR') or hasRole('VICE_CHANCELLOR')")
     public ResponseEntity<Page<SocietyRenewal>> getAllRenewals(
@@ -82,13 +130,9 @@ public class RenewalController {
     }
 
     @GetMapping("/download/{id}")
-    public ResponseEntity<byte[]> downloadRenewalPDF(@PathVariable Long id) {
-        byte[] pdfBytes = renewalService.generateRenewalPDF(id);
-        
-        return ResponseEntity.ok()
-                .header("Content-Type", "application/pdf")
-                .header("Content-Disposition", "attachment; filename=renewal-application.pdf")
-                .body(pdfBytes);
+    public void downloadRenewalPDF(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path pdf = renewalService.generateRenewalPDF(id);
+        pdfCacheService.serve(pdf, "renewal-application.pdf", request, response);
     }
 
     @GetMapping("/statistics")
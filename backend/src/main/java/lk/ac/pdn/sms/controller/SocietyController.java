@@ -4,6 +4,8 @@ import lk.ac.pdn.sms.dto.SocietyRegistrationDto;
 import lk.ac.pdn.sms.dto.SocietyRenewalDto;
 import lk.ac.pdn.sms.entity.Society;
 import lk.ac.pdn.sms.entity.SocietyRegistration;
+import lk.ac.pdn.sms.service.IdempotencyService;
+import lk.ac.pdn.sms.service.MemberImportService;
 import lk.ac.pdn.sms.service.SocietyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -11,8 +13,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/societies")
@@ -22,6 +27,12 @@ public class SocietyController {
     @Autowired
     private SocietyService societyService;
 
+    @Autowired
+    private MemberImportService memberImportService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @GetMapping("/public")
     public ResponseEntity<Page<Society>> getAllSocieties(
             @RequestParam(defaultValue = "0") int page,
@@ -42,9 +53,14 @@ public class SocietyController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<SocietyRegistration> registerSociety(@Valid @RequestBody SocietyRegistrationDto registrationDto) {
-        SocietyRegistration registration = societyService.registerSociety(registrationDto);
-        return ResponseEntity.ok(registration);
+    public ResponseEntity<SocietyRegistration> registerSociety(
+            @Valid @RequestBody SocietyRegistrationDto registrationDto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        IdempotencyService.Result<SocietyRegistration> result = idempotencyService.execute(
+                "registration", idempotencyKey, registrationDto, () -> societyService.registerSociety(registrationDto));
+        return ResponseEntity.ok()
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.value());
     }
 
     @PostMapping("/renew")
@@ -53,6 +69,15 @@ public class SocietyController {
         return ResponseEntity.ok(renewal);
     }
 
+    // Body is the raw CSV ("reg no,name" per line); it is streamed, not buffered
+    @PostMapping(value = "/registrations/{id}/members/import", consumes = "text/csv")
+    public ResponseEntity<Map<String, Object>> importMembers(@PathVariable Long id,
+                                                             @RequestParam String applicantRegNo,
+                                                             @RequestHeader(value = MemberImportService.UPLOAD_TOKEN_HEADER, required = false) String uploadToken,
+                                                             HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(memberImportService.importRegistrationMembers(id, applicantRegNo, uploadToken, request.getInputStream()));
+    }
+
     @GetMapping("/active")
     public ResponseEntity<List<Society>> getActiveSocieties() {
         List<Society> societies = societyService.getActiveSocieties();
@@ -0,0 +1,80 @@
+package lk.ac.pdn.sms.controller;
+
+import lk.ac.pdn.sms.dto.EventPermissionDto;
+import lk.ac.pdn.sms.dto.SocietyRegistrationDto;
+import lk.ac.pdn.sms.dto.SocietyRenewalDto;
+import lk.ac.pdn.sms.entity.QueuedSubmission;
+import lk.ac.pdn.sms.service.IdempotencyService;
+import lk.ac.pdn.sms.service.SubmissionQueueService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Asynchronous variants of the submission endpoints. Requests are validated and queued,
+ * and answered with 202 and a tracking id to poll.
+ */
+@RestController
+@RequestMapping("/api/submissions")
+@CrossOrigin(origins = "http://localhost:5173")
+public class SubmissionController {
+
+    private final SubmissionQueueService submissionQueueService;
+    private final IdempotencyService idempotencyService;
+
+    public SubmissionController(SubmissionQueueService submissionQueueService, IdempotencyService idempotencyService) {
+        this.submissionQueueService = submissionQueueService;
+        this.idempotencyService = idempotencyService;
+    }
+
+    @PostMapping("/registrations")
+    public ResponseEntity<Map<String, Object>> submitRegistration(
+            @Valid @RequestBody SocietyRegistrationDto dto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return accept("queued-registration", QueuedSubmission.SubmissionType.REGISTRATION, dto, idempotencyKey);
+    }
+
+    @PostMapping("/renewals")
+    public ResponseEntity<Map<String, Object>> submitRenewal(
+            @Valid @RequestBody SocietyRenewalDto dto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return accept("queued-renewal", QueuedSubmission.SubmissionType.RENEWAL, dto, idempotencyKey);
+    }
+
+    @PostMapping("/events")
+    public ResponseEntity<Map<String, Object>> submitEvent(
+            @Valid @RequestBody EventPermissionDto dto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return accept("queued-event", QueuedSubmission.SubmissionType.EVENT, dto, idempotencyKey);
+    }
+
+    @GetMapping("/{trackingId}")
+    public ResponseEntity<Map<String, Object>> getStatus(@PathVariable String trackingId) {
+        return ResponseEntity.ok(submissionQueueService.getStatus(trackingId));
+    }
+
+    private ResponseEntity<Map<String, Object>> accept(String scope, QueuedSubmission.SubmissionType type,
+                                                       Object dto, String idempotencyKey) {
+        IdempotencyService.Result<QueuedSubmission> result = idempotencyService.execute(
+                scope, idempotencyKey, dto, () -> submissionQueueService.enqueue(type, dto));
+
+        String statusUrl = "/api/submissions/" + result.value().getId();
+        Map<String, Object> body = new HashMap<>();
+        body.put("trackingId", result.value().getId());
+        body.put("status", result.value().getStatus());
+        body.put("statusUrl", statusUrl);
+        // Only handed out here; it is needed for member imports into the created application
+        if (result.value().getUploadToken() != null) {
+            body.put("uploadToken", result.value().getUploadToken());
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header("Location", statusUrl)
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(body);
+    }
+}
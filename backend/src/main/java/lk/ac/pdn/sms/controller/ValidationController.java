@@ -1,6 +1,7 @@
 package lk.ac.pdn.sms.controller;
 
 import lk.ac.pdn.sms.service.EmailValidationService;
+import lk.ac.pdn.sms.service.SocietyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +18,9 @@ public class ValidationController {
     @Autowired
     private EmailValidationService emailValidationService;
 
+    @Autowired
+    private SocietyService societyService;
+
     @PostMapping("/email")
     public ResponseEntity<Map<String, Object>> validateEmail(@RequestBody Map<String, String> request) {
         String email = request.get("email");
@@ -59,6 +63,12 @@ public class ValidationController {
         return ResponseEntity.ok(response);
     }
     
+    // Exact (normalised) clash plus near-duplicate suggestions, for checking as the applicant types
+    @PostMapping("/society-name")
+    public ResponseEntity<Map<String, Object>> validateSocietyName(@RequestBody Map<String, String> request) {
+        return ResponseEntity.ok(societyService.checkSocietyName(request.get("name")));
+    }
+
     @PostMapping("/bulk-emails")
     public ResponseEntity<Map<String, Object>> validateBulkEmails(@RequestBody Map<String, List<String>> request) {
         List<String> emails = request.get("emails");
@@ -0,0 +1,24 @@
+package lk.ac.pdn.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogFilter {
+
+    // Substring matches
+    private String user;
+    private String action;
+    private String target;
+
+    // Time range, from inclusive and to exclusive
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
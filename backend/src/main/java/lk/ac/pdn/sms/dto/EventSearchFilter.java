@@ -0,0 +1,25 @@
+package lk.ac.pdn.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSearchFilter {
+
+    private String status;
+
+    // Exact matches (case-insensitive)
+    private String society;
+    private String place;
+
+    // Event date range, both inclusive
+    private LocalDate from;
+    private LocalDate to;
+}
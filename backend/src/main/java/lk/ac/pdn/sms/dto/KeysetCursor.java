@@ -0,0 +1,41 @@
+package lk.ac.pdn.sms.dto;
+
+import lk.ac.pdn.sms.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort key and id of the last
+ * row on the previous page, URL-safe base64 encoded. The next page starts strictly
+ * after that (sortKey, id) pair, so it stays stable while new rows are inserted.
+ * A {@code null} sort key is kept as {@code null} (an empty key in the token).
+ */
+public record KeysetCursor(String sortKey, Long id) {
+
+    public static KeysetCursor of(Object sortKey, Long id) {
+        return new KeysetCursor(sortKey == null ? null : String.valueOf(sortKey), id);
+    }
+
+    public String encode() {
+        String raw = (sortKey == null ? "" : sortKey) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns {@code null} for a missing cursor (first page).
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            String sortKey = raw.substring(0, separator);
+            return new KeysetCursor(sortKey.isEmpty() ? null : sortKey, Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -8,7 +8,9 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "activity_logs")
+@Table(name = "activity_logs", indexes = {
+        @Index(name = "idx_timestamp", columnList = "timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,8 +34,10 @@ public class ActivityLog {
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
+    // No FK constraint: the table is range-partitioned by timestamp (see ActivityLogPartitionService)
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private AdminUser user;
 
     @PrePersist
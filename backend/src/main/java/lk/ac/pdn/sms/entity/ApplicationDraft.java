@@ -0,0 +1,58 @@
+package lk.ac.pdn.sms.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Work-in-progress registration or renewal form, saved by autosave.
+ * The form is kept as gzip-compressed JSON in the shape of the submission DTO.
+ */
+@Entity
+@Table(name = "application_drafts", indexes = {
+        @Index(name = "idx_application_drafts_updated", columnList = "updated_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationDraft {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DraftType type;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] content;
+
+    @Version
+    private Long version;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum DraftType {
+        REGISTRATION, RENEWAL
+    }
+}
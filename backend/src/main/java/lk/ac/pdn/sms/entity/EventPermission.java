@@ -4,12 +4,21 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "event_permissions")
+@Table(name = "event_permissions", indexes = {
+        // Covers the budget analytics grouping without touching the rows
+        @Index(name = "idx_event_permissions_budget",
+                columnList = "status, event_date, society_name, budget_estimate_value, student_fee_value"),
+        // Event search; InnoDB appends the id, so each index is in (event_date, id) keyset order.
+        // Status searches use the (status, event_date, ...) prefix of the budget index above.
+        @Index(name = "idx_event_permissions_place_date", columnList = "place, event_date"),
+        @Index(name = "idx_event_permissions_society_date", columnList = "society_name, event_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -65,6 +74,13 @@ public class EventPermission {
     private String fundCollectionMethods;
     private String studentFeeAmount;
 
+    // Parsed from the two free-text amounts above; null when no amount could be read
+    @Column(name = "budget_estimate_value", precision = 14, scale = 2)
+    private BigDecimal budgetEstimateValue;
+
+    @Column(name = "student_fee_value", precision = 14, scale = 2)
+    private BigDecimal studentFeeValue;
+
     private String seniorTreasurerName;
     private String seniorTreasurerDepartment;
     private String seniorTreasurerMobile;
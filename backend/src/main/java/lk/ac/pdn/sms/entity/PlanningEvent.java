@@ -14,7 +14,8 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class PlanningEvent {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "planning_events_seq")
+    @SequenceGenerator(name = "planning_events_seq", sequenceName = "planning_events_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -14,7 +14,8 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class PreviousActivity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "previous_activities_seq")
+    @SequenceGenerator(name = "previous_activities_seq", sequenceName = "previous_activities_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,82 @@
+package lk.ac.pdn.sms.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A submission accepted in async mode and waiting to be processed.
+ * The validated request body is stored as JSON so the queue survives restarts.
+ */
+@Entity
+@Table(name = "queued_submissions", indexes = {
+        @Index(name = "idx_queued_submissions_status_created", columnList = "status, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueuedSubmission {
+
+    // Tracking id handed to the client
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SubmissionType type;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SubmissionStatus status = SubmissionStatus.QUEUED;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // Id of the registration/renewal/event created once processed
+    @Column(name = "result_id")
+    private Long resultId;
+
+    // SHA-256 of the member upload token the created registration/renewal will get
+    @Column(name = "upload_token_hash", length = 64)
+    private String uploadTokenHash;
+
+    // The token itself, only set on the instance returned by enqueue
+    @Transient
+    private String uploadToken;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum SubmissionType {
+        REGISTRATION, RENEWAL, EVENT
+    }
+
+    public enum SubmissionStatus {
+        QUEUED, PROCESSING, COMPLETED, FAILED
+    }
+}
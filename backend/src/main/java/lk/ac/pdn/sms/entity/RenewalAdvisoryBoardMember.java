@@ -12,7 +12,8 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class RenewalAdvisoryBoardMember {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "renewal_advisory_board_members_seq")
+    @SequenceGenerator(name = "renewal_advisory_board_members_seq", sequenceName = "renewal_advisory_board_members_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
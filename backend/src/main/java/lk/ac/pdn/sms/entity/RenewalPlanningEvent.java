@@ -14,7 +14,8 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class RenewalPlanningEvent {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "renewal_planning_events_seq")
+    @SequenceGenerator(name = "renewal_planning_events_seq", sequenceName = "renewal_planning_events_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,76 @@
+package lk.ac.pdn.sms.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A reminder e-mail due at a fixed time. Pending rows are loaded into the in-memory timer
+ * wheel at startup, so reminders survive restarts without the events table being polled.
+ * There is at most one row per (type, event); rescheduling updates it in place.
+ */
+@Entity
+@Table(name = "scheduled_reminders", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_scheduled_reminders_type_event", columnNames = {"type", "event_id"})
+}, indexes = {
+        @Index(name = "idx_scheduled_reminders_status_due", columnList = "status, due_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReminderType type;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReminderStatus status = ReminderStatus.PENDING;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum ReminderType {
+        // To the applicant, ahead of an approved event
+        EVENT_DAY,
+        // To Student Services, on the day of an approved event that needs late passes
+        LATE_PASS,
+        // To the current approver, when a request has waited too long
+        APPROVAL_SLA
+    }
+
+    public enum ReminderStatus {
+        PENDING, SENT, CANCELLED
+    }
+}
@@ -6,9 +6,11 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonProperty; // Import for JSON formatting
 
+import java.text.Normalizer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -25,6 +27,10 @@ public class Society {
     @Column(name = "society_name", nullable = false, unique = true)
     private String societyName;
 
+    // Case/space/punctuation-insensitive form of societyName, see normalizeName()
+    @Column(name = "normalized_name", unique = true)
+    private String normalizedName;
+
     @Column(name = "registered_date", nullable = false)
     private LocalDate registeredDate;
 
@@ -74,11 +80,25 @@ public class Society {
         updatedAt = LocalDateTime.now();
         if (this.registeredDate == null) this.registeredDate = LocalDate.now();
         if (this.year == null) this.year = LocalDate.now().getYear();
+        normalizedName = normalizeName(societyName);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        normalizedName = normalizeName(societyName);
+    }
+
+    /**
+     * "Computer  Society ", "computer society" and "Computer-Society" all normalise to
+     * "computer society": Unicode NFKC, lower case, punctuation as spaces, spaces collapsed.
+     */
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(name, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return normalized.replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
     }
 
     public enum SocietyStatus {
@@ -1,5 +1,7 @@
 package lk.ac.pdn.sms.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,12 +15,19 @@ import java.util.List;
  * This is the application data, which remains in this table until final approval (APPROVED or REJECTED).
  */
 @Entity
-@Table(name = "society_registration_applications")
+@Table(name = "society_registration_applications", indexes = {
+        @Index(name = "idx_registration_normalized_name", columnList = "normalized_name")
+}, uniqueConstraints = {
+        // At most one open application per normalized name, so concurrent submissions cannot both pass
+        @UniqueConstraint(name = SocietyRegistration.UNIQUE_OPEN_NAME, columnNames = {"open_normalized_name"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class SocietyRegistration {
 
+    public static final String UNIQUE_OPEN_NAME = "uk_registration_open_name";
+
     // 1. Primary Key
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -44,6 +53,20 @@ public class SocietyRegistration {
     @Column(nullable = false, unique = true)
     private String societyName;
 
+    @Column(name = "normalized_name")
+    private String normalizedName;
+
+    // normalized_name while the application awaits a decision, NULL once approved or rejected (NULLs never collide)
+    @JsonIgnore
+    @Column(name = "open_normalized_name", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (CASE WHEN status IN "
+                    + "('PENDING_DEAN', 'PENDING_AR', 'PENDING_VC') THEN normalized_name END) STORED")
+    private String openNormalizedName;
+
+    // Set at submission when the name is very similar to an existing society, for reviewers
+    @Column(name = "possible_duplicate_of")
+    private String possibleDuplicateOf;
+
     @Column(columnDefinition = "TEXT")
     private String aims;
 
@@ -174,9 +197,20 @@ public class SocietyRegistration {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // SHA-256 of the token required to upload members to this application
+    @JsonIgnore
+    @Column(name = "upload_token_hash", length = 64)
+    private String uploadTokenHash;
+
+    // The token itself, only set on the instance returned by the submission
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String uploadToken;
+
     // 9. Lifecycle Methods
     @PrePersist
     protected void onCreate() {
+        normalizedName = Society.normalizeName(societyName);
         submittedDate = LocalDateTime.now(); // FIX: Set submittedDate
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
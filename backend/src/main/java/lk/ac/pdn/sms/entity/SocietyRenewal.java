@@ -1,5 +1,7 @@
 package lk.ac.pdn.sms.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,12 +11,17 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Entity
-@Table(name = "society_renewal_applications")
+@Table(name = "society_renewal_applications", uniqueConstraints = {
+        // One renewal per society per year; enforced here so concurrent submissions cannot both pass
+        @UniqueConstraint(name = SocietyRenewal.UNIQUE_SOCIETY_YEAR, columnNames = {"society_name", "year"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class SocietyRenewal {
 
+    public static final String UNIQUE_SOCIETY_YEAR = "uk_renewal_society_year";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -161,6 +168,16 @@ public class SocietyRenewal {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // SHA-256 of the token required to upload members to this application
+    @JsonIgnore
+    @Column(name = "upload_token_hash", length = 64)
+    private String uploadTokenHash;
+
+    // The token itself, only set on the instance returned by the submission
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String uploadToken;
+
     @PrePersist
     protected void onCreate() {
         submittedDate = LocalDateTime.now();
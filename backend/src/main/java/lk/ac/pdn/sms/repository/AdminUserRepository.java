@@ -4,6 +4,7 @@ import lk.ac.pdn.sms.entity.AdminUser;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +12,8 @@ import java.util.Optional;
 public interface AdminUserRepository extends JpaRepository<AdminUser, Long> {
     
     Optional<AdminUser> findByEmail(String email);
+
+    List<AdminUser> findByEmailIn(Collection<String> emails);
     
     List<AdminUser> findByRole(AdminUser.Role role);
     
@@ -0,0 +1,23 @@
+package lk.ac.pdn.sms.repository;
+
+import lk.ac.pdn.sms.entity.ApplicationDraft;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ApplicationDraftRepository extends JpaRepository<ApplicationDraft, String> {
+
+    Optional<ApplicationDraft> findByIdAndType(String id, ApplicationDraft.DraftType type);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ApplicationDraft d WHERE d.updatedAt < :before")
+    int deleteByUpdatedAtBefore(@Param("before") LocalDateTime before);
+}
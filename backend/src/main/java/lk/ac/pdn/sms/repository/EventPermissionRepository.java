@@ -3,11 +3,17 @@ package lk.ac.pdn.sms.repository;
 import lk.ac.pdn.sms.entity.EventPermission;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventPermissionRepository extends JpaRepository<EventPermission, Long> {
@@ -18,7 +24,19 @@ public interface EventPermissionRepository extends JpaRepository<EventPermission
     // Page for Admin Table
     Page<EventPermission> findByStatus(EventPermission.EventStatus status, Pageable pageable);
 
-    // Upcoming Approved Events (For Home Page)
+    // Upcoming Approved Events; loaded once into UpcomingEventsFeed
     @Query("SELECT e FROM EventPermission e WHERE e.status = 'APPROVED' AND e.eventDate >= CURRENT_DATE ORDER BY e.eventDate ASC")
     List<EventPermission> findUpcomingApprovedEvents();
+
+    List<EventPermission> findByStatusInAndEventDateGreaterThanEqual(Collection<EventPermission.EventStatus> statuses, LocalDate from);
+
+    // Approval holds these row locks until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EventPermission e WHERE e.id = :id")
+    Optional<EventPermission> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EventPermission e WHERE e.status IN :statuses AND e.eventDate = :date ORDER BY e.id")
+    List<EventPermission> findByStatusInAndEventDateForUpdate(@Param("statuses") Collection<EventPermission.EventStatus> statuses,
+                                                              @Param("date") LocalDate date);
 }
\ No newline at end of file
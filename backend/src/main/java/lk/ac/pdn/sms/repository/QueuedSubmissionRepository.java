@@ -0,0 +1,70 @@
+package lk.ac.pdn.sms.repository;
+
+import lk.ac.pdn.sms.entity.QueuedSubmission;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QueuedSubmissionRepository extends JpaRepository<QueuedSubmission, String> {
+
+    long countByStatus(QueuedSubmission.SubmissionStatus status);
+
+    long countByStatusAndCreatedAtBefore(QueuedSubmission.SubmissionStatus status, LocalDateTime createdAt);
+
+    @Query("SELECT q.id FROM QueuedSubmission q WHERE q.status = :status ORDER BY q.createdAt")
+    List<String> findIdsByStatus(@Param("status") QueuedSubmission.SubmissionStatus status, Pageable pageable);
+
+    // Conditional update so only one worker (or instance) picks up a submission
+    @Transactional
+    @Modifying
+    @Query("UPDATE QueuedSubmission q SET q.status = lk.ac.pdn.sms.entity.QueuedSubmission.SubmissionStatus.PROCESSING, " +
+            "q.attempts = q.attempts + 1, q.updatedAt = :now " +
+            "WHERE q.id = :id AND q.status = lk.ac.pdn.sms.entity.QueuedSubmission.SubmissionStatus.QUEUED")
+    int claim(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE QueuedSubmission q SET q.status = lk.ac.pdn.sms.entity.QueuedSubmission.SubmissionStatus.QUEUED " +
+            "WHERE q.status = lk.ac.pdn.sms.entity.QueuedSubmission.SubmissionStatus.PROCESSING AND q.updatedAt < :before")
+    int requeueStale(@Param("before") LocalDateTime before);
+
+    // Row-locks a claimed submission for the rest of the caller's transaction, as long as
+    // this worker still holds the claim (no lease expiry or re-claim since)
+    @Transactional
+    @Modifying
+    @Query("UPDATE QueuedSubmission q SET q.updatedAt = :now " +
+            "WHERE q.id = :id AND q.attempts = :attempts " +
+            "AND q.status = lk.ac.pdn.sms.entity.QueuedSubmission.SubmissionStatus.PROCESSING")
+    int holdClaim(@Param("id") String id, @Param("attempts") int attempts, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE QueuedSubmission q SET q.status = :status, q.resultId = :resultId, q.error = :error, q.updatedAt = :now " +
+            "WHERE q.id = :id AND q.attempts = :attempts " +
+            "AND q.status = lk.ac.pdn.sms.entity.QueuedSubmission.SubmissionStatus.PROCESSING")
+    int finish(@Param("id") String id, @Param("attempts") int attempts,
+               @Param("status") QueuedSubmission.SubmissionStatus status,
+               @Param("resultId") Long resultId, @Param("error") String error, @Param("now") LocalDateTime now);
+
+    // Keeps the lease of submissions this instance is still working on
+    @Transactional
+    @Modifying
+    @Query("UPDATE QueuedSubmission q SET q.updatedAt = :now " +
+            "WHERE q.id IN :ids AND q.status = lk.ac.pdn.sms.entity.QueuedSubmission.SubmissionStatus.PROCESSING")
+    int renewLeases(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM QueuedSubmission q WHERE q.status IN (lk.ac.pdn.sms.entity.QueuedSubmission.SubmissionStatus.COMPLETED, " +
+            "lk.ac.pdn.sms.entity.QueuedSubmission.SubmissionStatus.FAILED) AND q.updatedAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,35 @@
+package lk.ac.pdn.sms.repository;
+
+import lk.ac.pdn.sms.entity.ScheduledReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScheduledReminderRepository extends JpaRepository<ScheduledReminder, Long> {
+
+    Optional<ScheduledReminder> findByTypeAndEventId(ScheduledReminder.ReminderType type, Long eventId);
+
+    List<ScheduledReminder> findByEventIdAndStatus(Long eventId, ScheduledReminder.ReminderStatus status);
+
+    // Conditional update so a reminder is sent once even if it fires on two instances
+    @Transactional
+    @Modifying
+    @Query("UPDATE ScheduledReminder r SET r.status = lk.ac.pdn.sms.entity.ScheduledReminder.ReminderStatus.SENT, " +
+            "r.sentAt = :now, r.updatedAt = :now " +
+            "WHERE r.id = :id AND r.status = lk.ac.pdn.sms.entity.ScheduledReminder.ReminderStatus.PENDING AND r.dueAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ScheduledReminder r WHERE r.status <> lk.ac.pdn.sms.entity.ScheduledReminder.ReminderStatus.PENDING " +
+            "AND r.updatedAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
@@ -9,7 +9,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SocietyRegistrationRepository extends JpaRepository<SocietyRegistration, Long> {
@@ -17,6 +19,13 @@ public interface SocietyRegistrationRepository extends JpaRepository<SocietyRegi
     // FIX: Use fully qualified enum name SocietyRegistration.ApprovalStage
     List<SocietyRegistration> findByStatus(SocietyRegistration.ApprovalStage status);
 
+    boolean existsByNormalizedNameAndStatusIn(String normalizedName, Collection<SocietyRegistration.ApprovalStage> statuses);
+
+    @Query("SELECT r.societyName FROM SocietyRegistration r WHERE r.status IN :statuses")
+    List<String> findNamesByStatusIn(@Param("statuses") Collection<SocietyRegistration.ApprovalStage> statuses);
+
+    List<SocietyRegistration> findByNormalizedNameIsNull();
+
     List<SocietyRegistration> findByStatusAndApplicantFaculty(
             SocietyRegistration.ApprovalStage status, String faculty);
 
@@ -27,4 +36,19 @@ public interface SocietyRegistrationRepository extends JpaRepository<SocietyRegi
 
     @Query("SELECT COUNT(r) FROM SocietyRegistration r WHERE r.status = :status")
     long countByStatus(@Param("status") SocietyRegistration.ApprovalStage status);
-}
\ No newline at end of file
+
+    // Id-only keyset page used by the bulk PDF export
+    @Query("SELECT r.id FROM SocietyRegistration r WHERE r.status = :status AND r.id > :afterId " +
+            "AND (:year IS NULL OR r.year = :year) AND (:faculty IS NULL OR r.applicantFaculty = :faculty) " +
+            "ORDER BY r.id ASC")
+    List<Long> findIdsForExport(@Param("status") SocietyRegistration.ApprovalStage status,
+                                @Param("year") Integer year,
+                                @Param("faculty") String faculty,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+
+    @Query("SELECT r FROM SocietyRegistration r LEFT JOIN FETCH r.member WHERE r.id = " +
+            "(SELECT MAX(r2.id) FROM SocietyRegistration r2 WHERE r2.societyName = :societyName " +
+            "AND r2.status = lk.ac.pdn.sms.entity.SocietyRegistration.ApprovalStage.APPROVED)")
+    Optional<SocietyRegistration> findLatestApprovedWithMembers(@Param("societyName") String societyName);
+}
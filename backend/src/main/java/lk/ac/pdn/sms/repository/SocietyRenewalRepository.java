@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SocietyRenewalRepository extends JpaRepository<SocietyRenewal, Long> {
@@ -27,8 +28,24 @@ public interface SocietyRenewalRepository extends JpaRepository<SocietyRenewal,
     @Query("SELECT COUNT(r) FROM SocietyRenewal r WHERE r.status = :status")
     long countByStatus(@Param("status") RenewalStatus status);
 
-    boolean existsBySocietyNameAndYear(String societyName, Integer year);
 
     @Query("SELECT r FROM SocietyRenewal r WHERE r.societyName = :societyName AND r.year = :year")
     List<SocietyRenewal> findBySocietyNameAndYear(@Param("societyName") String societyName, @Param("year") Integer year);
-}
\ No newline at end of file
+
+    // Id-only keyset page used by the bulk PDF export
+    @Query("SELECT r.id FROM SocietyRenewal r WHERE r.status = :status AND r.id > :afterId " +
+            "AND (:year IS NULL OR r.year = :year) AND (:faculty IS NULL OR r.applicantFaculty = :faculty) " +
+            "ORDER BY r.id ASC")
+    List<Long> findIdsForExport(@Param("status") RenewalStatus status,
+                                @Param("year") Integer year,
+                                @Param("faculty") String faculty,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+
+    // Latest approved renewal older than beforeId, with its member list; the other child lists are batch-fetched
+    @Query("SELECT r FROM SocietyRenewal r LEFT JOIN FETCH r.member WHERE r.id = " +
+            "(SELECT MAX(r2.id) FROM SocietyRenewal r2 WHERE r2.societyName = :societyName " +
+            "AND r2.status = lk.ac.pdn.sms.entity.SocietyRenewal.RenewalStatus.APPROVED AND r2.id < :beforeId)")
+    Optional<SocietyRenewal> findLatestApprovedWithMembers(@Param("societyName") String societyName,
+                                                           @Param("beforeId") Long beforeId);
+}
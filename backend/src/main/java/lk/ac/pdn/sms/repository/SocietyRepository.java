@@ -4,9 +4,11 @@ import lk.ac.pdn.sms.entity.Society;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,5 +32,23 @@ public interface SocietyRepository extends JpaRepository<Society, Long> {
 
     Optional<Society> findBySocietyName(String societyName);
 
+    boolean existsBySocietyName(String societyName);
+
+    boolean existsByNormalizedName(String normalizedName);
+
+    List<Society> findByNormalizedNameIsNull();
+
+    @Query("SELECT s.societyName FROM Society s")
+    List<String> findAllNames();
+
+    // Faculty of the latest approved registration, for societies created before it was copied over
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE societies s SET s.primary_faculty = (" +
+            "SELECT r.applicant_faculty FROM society_registration_applications r " +
+            "WHERE r.society_name = s.society_name AND r.status = 'APPROVED' ORDER BY r.id DESC LIMIT 1) " +
+            "WHERE s.primary_faculty IS NULL", nativeQuery = true)
+    int backfillPrimaryFaculty();
+
     Optional<Society> findBySocietyNameAndStatus(String societyName, Society.SocietyStatus status);
 }
\ No newline at end of file
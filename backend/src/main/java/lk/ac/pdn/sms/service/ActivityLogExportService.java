@@ -0,0 +1,222 @@
+package lk.ac.pdn.sms.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import lk.ac.pdn.sms.dto.ActivityLogFilter;
+import lk.ac.pdn.sms.exception.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the audit trail for auditors as CSV or NDJSON.
+ * Rows come from a forward-only MySQL streaming cursor and are written straight to the
+ * response, so memory use is one row at a time no matter how large the range is.
+ */
+@Service
+public class ActivityLogExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogExportService.class);
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private final ActivityLogService activityLogService;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final LongAdder exports = new LongAdder();
+    private final LongAdder exportedRows = new LongAdder();
+    private final LongAdder exportedBytes = new LongAdder();
+    private final LongAdder exportNanos = new LongAdder();
+    private final AtomicLong lastRowsPerSecond = new AtomicLong();
+    private final AtomicLong lastBytesPerSecond = new AtomicLong();
+
+    public ActivityLogExportService(ActivityLogService activityLogService, DataSource dataSource) {
+        this.activityLogService = activityLogService;
+        // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the result set
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws IOException, SQLException;
+    }
+
+    public static String contentType(String format) {
+        return NDJSON.equalsIgnoreCase(format) ? "application/x-ndjson" : "text/csv";
+    }
+
+    /**
+     * Lower-cased export format; call before the response is committed so a bad value is still a 400.
+     */
+    public static String checkFormat(String format) {
+        String fmt = format == null ? CSV : format.trim().toLowerCase(Locale.ROOT);
+        if (!fmt.equals(CSV) && !fmt.equals(NDJSON)) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+        return fmt;
+    }
+
+    public void export(ActivityLogFilter filter, String format, boolean gzip, OutputStream response) throws IOException {
+        String fmt = checkFormat(format);
+
+        StringBuilder sql = new StringBuilder(ActivityLogService.SELECT_COLUMNS).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        boolean any = activityLogService.appendFilter(filter, sql, args);
+        sql.append(" ORDER BY timestamp, id");
+
+        CountingOutputStream counted = new CountingOutputStream(response);
+        OutputStream out = gzip ? new GZIPOutputStream(counted, 64 * 1024) : counted;
+        long started = System.nanoTime();
+        long[] rows = {0};
+
+        try {
+            if (fmt.equals(CSV)) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+                writer.write("id,user_id,user_name,action,target,timestamp\n");
+                if (any) {
+                    stream(sql, args, rows, rs -> {
+                        writer.write(Long.toString(rs.getLong("id")));
+                        writer.write(',');
+                        long userId = rs.getLong("user_id");
+                        if (!rs.wasNull()) {
+                            writer.write(Long.toString(userId));
+                        }
+                        writer.write(',');
+                        writer.write(csv(rs.getString("user_name")));
+                        writer.write(',');
+                        writer.write(csv(rs.getString("action")));
+                        writer.write(',');
+                        writer.write(csv(rs.getString("target")));
+                        writer.write(',');
+                        writer.write(rs.getTimestamp("timestamp").toLocalDateTime().toString());
+                        writer.write('\n');
+                    });
+                }
+                writer.flush();
+            } else {
+                JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+                json.setRootValueSeparator(new SerializedString("\n"));
+                if (any) {
+                    stream(sql, args, rows, rs -> {
+                        json.writeStartObject();
+                        json.writeNumberField("id", rs.getLong("id"));
+                        long userId = rs.getLong("user_id");
+                        if (rs.wasNull()) {
+                            json.writeNullField("userId");
+                        } else {
+                            json.writeNumberField("userId", userId);
+                        }
+                        json.writeStringField("userName", rs.getString("user_name"));
+                        json.writeStringField("action", rs.getString("action"));
+                        json.writeStringField("target", rs.getString("target"));
+                        json.writeStringField("timestamp", rs.getTimestamp("timestamp").toLocalDateTime().toString());
+                        json.writeEndObject();
+                    });
+                    json.writeRaw('\n');
+                }
+                json.flush();
+            }
+            if (gzip) {
+                ((GZIPOutputStream) out).finish();
+            }
+            out.flush();
+        } finally {
+            record(rows[0], counted.count, System.nanoTime() - started);
+        }
+    }
+
+    private void stream(StringBuilder sql, List<Object> args, long[] rows, RowWriter writer) throws IOException {
+        try {
+            streamingJdbcTemplate.query(sql.toString(), rs -> {
+                try {
+                    writer.write(rs);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray());
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; stop reading the cursor
+            throw e.getCause();
+        }
+    }
+
+    private void record(long rows, long bytes, long nanos) {
+        double seconds = Math.max(nanos, 1) / 1_000_000_000.0;
+        exports.increment();
+        exportedRows.add(rows);
+        exportedBytes.add(bytes);
+        exportNanos.add(nanos);
+        lastRowsPerSecond.set(Math.round(rows / seconds));
+        lastBytesPerSecond.set(Math.round(bytes / seconds));
+        log.info("Activity log export: {} rows, {} bytes in {} ms ({} rows/s, {} bytes/s)",
+                rows, bytes, nanos / 1_000_000, lastRowsPerSecond.get(), lastBytesPerSecond.get());
+    }
+
+    public Map<String, Object> getMetrics() {
+        double seconds = exportNanos.sum() / 1_000_000_000.0;
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("exports", exports.sum());
+        metrics.put("rows", exportedRows.sum());
+        metrics.put("bytes", exportedBytes.sum());
+        metrics.put("rowsPerSecond", seconds == 0 ? 0 : Math.round(exportedRows.sum() / seconds));
+        metrics.put("bytesPerSecond", seconds == 0 ? 0 : Math.round(exportedBytes.sum() / seconds));
+        metrics.put("lastRowsPerSecond", lastRowsPerSecond.get());
+        metrics.put("lastBytesPerSecond", lastBytesPerSecond.get());
+        return metrics;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Spreadsheets would evaluate these as formulas; the quote makes them plain text
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
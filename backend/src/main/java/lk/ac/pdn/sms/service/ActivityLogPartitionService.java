@@ -0,0 +1,246 @@
+package lk.ac.pdn.sms.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps {@code activity_logs} range-partitioned by month (MySQL RANGE COLUMNS on timestamp).
+ * On startup the table is converted if needed, and a daily job pre-creates upcoming
+ * month partitions and archives partitions older than the retention period to
+ * gzip-compressed NDJSON files before dropping them.
+ */
+@Service
+public class ActivityLogPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogPartitionService.class);
+
+    private static final String TABLE = "activity_logs";
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ActivityLogSearchIndex searchIndex;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Value("${app.activity-log.partitioning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.activity-log.partitioning.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${app.activity-log.partitioning.hot-months:3}")
+    private int hotMonths;
+
+    @Value("${app.activity-log.partitioning.future-months:2}")
+    private int futureMonths;
+
+    @Value("${app.file-upload-dir:./uploads}")
+    private String fileUploadDir;
+
+    public ActivityLogPartitionService(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                       ActivityLogSearchIndex searchIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchIndex = searchIndex;
+        // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the result set
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Start of the "hot" window. Queries without an explicit time range are bounded by this,
+     * which lets MySQL prune them to the most recent partitions.
+     */
+    public LocalDateTime hotWindowStart() {
+        return YearMonth.now().minusMonths(hotMonths - 1L).atDay(1).atStartOfDay();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialisePartitions() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<String> partitions = listPartitions();
+            if (partitions.isEmpty()) {
+                convertToPartitionedTable();
+            } else if (partitions.equals(List.of(MAX_PARTITION))) {
+                splitHistoricPartitions();
+            }
+            ensureFuturePartitions();
+        } catch (RuntimeException e) {
+            log.warn("Activity log partitioning unavailable, continuing unpartitioned: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.activity-log.partitioning.cron:0 30 2 * * *}")
+    public void maintainPartitions() {
+        if (!enabled || listPartitions().isEmpty()) {
+            return;
+        }
+        ensureFuturePartitions();
+        archiveExpiredPartitions();
+    }
+
+    private void convertToPartitionedTable() {
+        // MySQL partitioned tables cannot take part in foreign keys, and every unique key
+        // (including the primary key) has to contain the partitioning column
+        List<String> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND CONSTRAINT_TYPE = 'FOREIGN KEY'",
+                String.class, TABLE);
+        for (String fk : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP FOREIGN KEY `" + fk + "`");
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, timestamp)");
+
+        YearMonth first = oldestMonth();
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(timestamp) (" + monthlyPartitions(first) + ")");
+        log.info("Converted {} to monthly partitions starting {}", TABLE, first);
+    }
+
+    // A table created by database_setup.sql starts with pmax alone, holding every row so far;
+    // the monthly partitions are split off in one pass here rather than one rebuild per month
+    private void splitHistoricPartitions() {
+        YearMonth first = oldestMonth();
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION +
+                " INTO (" + monthlyPartitions(first) + ")");
+        log.info("Split {} into monthly partitions starting {}", TABLE, first);
+    }
+
+    private YearMonth oldestMonth() {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM " + TABLE, Timestamp.class);
+        return oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : YearMonth.now();
+    }
+
+    // One partition per month from first to the current month, then pmax
+    private static String monthlyPartitions(YearMonth first) {
+        StringBuilder ddl = new StringBuilder();
+        for (YearMonth month = first; !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+            ddl.append(partitionDefinition(month)).append(", ");
+        }
+        return ddl.append("PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN (MAXVALUE)").toString();
+    }
+
+    private void ensureFuturePartitions() {
+        List<String> existing = listPartitions();
+        for (int i = 0; i <= futureMonths; i++) {
+            YearMonth month = YearMonth.now().plusMonths(i);
+            String name = month.format(PARTITION_NAME);
+            if (!existing.contains(name)) {
+                // Once the historic months exist, pmax only holds rows dated after the newest
+                // month (normally none), so splitting it rewrites little or nothing
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                        partitionDefinition(month) + ", PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+                existing.add(name);
+            }
+        }
+    }
+
+    private void archiveExpiredPartitions() {
+        String cutoff = YearMonth.now().minusMonths(retentionMonths).format(PARTITION_NAME);
+        boolean dropped = false;
+        for (String partition : listPartitions()) {
+            if (partition.equals(MAX_PARTITION) || partition.compareTo(cutoff) >= 0) {
+                continue;
+            }
+            try {
+                Path archive = archivePartition(partition);
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partition);
+                log.info("Archived activity log partition {} to {}", partition, archive);
+                dropped = true;
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not archive activity log partition {}, keeping it: {}", partition, e.getMessage());
+            }
+        }
+        if (dropped) {
+            // Release postings for the archived rows
+            searchIndex.rebuild();
+        }
+    }
+
+    private Path archivePartition(String partition) throws IOException {
+        Path dir = Paths.get(fileUploadDir, "activity-archive");
+        Files.createDirectories(dir);
+        YearMonth month = YearMonth.parse(partition.substring(1), DateTimeFormatter.ofPattern("yyyyMM"));
+        Path target = dir.resolve(TABLE + "-" + month + ".ndjson.gz");
+        Path temp = Files.createTempFile(dir, partition, ".tmp");
+
+        // Gone after a successful move; otherwise a partial archive from any failure
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp));
+                 JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+                json.setRootValueSeparator(new SerializedString("\n"));
+                streamingJdbcTemplate.query(
+                        "SELECT id, user_id, user_name, action, target, timestamp FROM " + TABLE +
+                                " PARTITION (" + partition + ") ORDER BY id",
+                        rs -> {
+                            try {
+                                json.writeStartObject();
+                                json.writeNumberField("id", rs.getLong("id"));
+                                long userId = rs.getLong("user_id");
+                                if (rs.wasNull()) {
+                                    json.writeNullField("userId");
+                                } else {
+                                    json.writeNumberField("userId", userId);
+                                }
+                                json.writeStringField("userName", rs.getString("user_name"));
+                                json.writeStringField("action", rs.getString("action"));
+                                json.writeStringField("target", rs.getString("target"));
+                                json.writeStringField("timestamp", rs.getTimestamp("timestamp").toLocalDateTime().toString());
+                                json.writeEndObject();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                json.writeRaw('\n');
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return target;
+    }
+
+    private List<String> listPartitions() {
+        return new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                        "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, TABLE));
+    }
+
+    private static String partitionDefinition(YearMonth month) {
+        return "PARTITION " + month.format(PARTITION_NAME) +
+                " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + " 00:00:00')";
+    }
+}
@@ -0,0 +1,265 @@
+package lk.ac.pdn.sms.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over activity_logs.user_name, action and target.
+ * Each trigram maps to a sorted list of log ids, so a substring search intersects a few
+ * posting lists instead of running {@code LIKE '%x%'} over the whole table. The result
+ * is a candidate set that the caller still verifies in SQL against the primary key.
+ * The index is rebuilt from the table at startup and kept current by {@link ActivityLogWriter}.
+ */
+@Service
+public class ActivityLogSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogSearchIndex.class);
+
+    public enum Field {
+        USER_NAME, ACTION, TARGET
+    }
+
+    private record IndexedLog(long id, String userName, String action, String target) {
+    }
+
+    /** Growable sorted array of ids. */
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) {
+                    return;
+                }
+                insertAt(-pos - 1, id);
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private void insertAt(int index, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+
+    private static final class Postings {
+        private final EnumMap<Field, Map<Long, PostingList>> fields = new EnumMap<>(Field.class);
+
+        Postings() {
+            for (Field field : Field.values()) {
+                fields.put(field, new HashMap<>());
+            }
+        }
+
+        void add(IndexedLog entry) {
+            add(Field.USER_NAME, entry.id(), entry.userName());
+            add(Field.ACTION, entry.id(), entry.action());
+            add(Field.TARGET, entry.id(), entry.target());
+        }
+
+        private void add(Field field, long id, String value) {
+            Map<Long, PostingList> index = fields.get(field);
+            for (long key : Trigrams.of(value)) {
+                index.computeIfAbsent(key, k -> new PostingList()).add(id);
+            }
+        }
+    }
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private Postings postings = new Postings();
+    private volatile boolean ready;
+    // Entries written while a rebuild scans the table, replayed into the new index before it is swapped in
+    private List<IndexedLog> pendingDuringRebuild;
+
+    private final LongAdder indexedLookups = new LongAdder();
+    private final LongAdder fallbackLookups = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+
+    @Value("${app.activity-log.search.max-candidates:5000}")
+    private int maxCandidates;
+
+    public ActivityLogSearchIndex(DataSource dataSource) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Postings rebuilt = new Postings();
+            long[] rows = {0};
+            streamingJdbcTemplate.query("SELECT id, user_name, action, target FROM activity_logs", rs -> {
+                rebuilt.add(new IndexedLog(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+                rows[0]++;
+            });
+
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild.forEach(rebuilt::add);
+                pendingDuringRebuild = null;
+                postings = rebuilt;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Activity log search index built from {} rows in {} ms", rows[0], System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Could not build activity log search index, substring searches will use LIKE: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    public void add(long id, String userName, String action, String target) {
+        IndexedLog entry = new IndexedLog(id, userName, action, target);
+        lock.writeLock().lock();
+        try {
+            postings.add(entry);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Candidate ids whose fields may contain all the given (non-blank) terms.
+     * Returns {@code null} when the index cannot help: it is not built yet, no term is
+     * long enough to have a trigram, or the candidate set is too large to be worth an
+     * {@code id IN (...)} lookup. Callers then fall back to a plain LIKE query.
+     */
+    public Set<Long> candidates(Map<Field, String> terms) {
+        long started = System.nanoTime();
+        try {
+            long[] result = ready ? intersectTerms(terms) : null;
+            if (result == null || result.length > maxCandidates) {
+                fallbackLookups.increment();
+                return null;
+            }
+            indexedLookups.increment();
+            Set<Long> ids = new LinkedHashSet<>(result.length * 2);
+            for (long id : result) {
+                ids.add(id);
+            }
+            return ids;
+        } finally {
+            lookupNanos.add(System.nanoTime() - started);
+        }
+    }
+
+    private long[] intersectTerms(Map<Field, String> terms) {
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            for (Map.Entry<Field, String> term : terms.entrySet()) {
+                if (term.getValue() == null || term.getValue().isBlank()) {
+                    continue;
+                }
+                long[] keys = Trigrams.of(term.getValue());
+                if (keys.length == 0) {
+                    continue;
+                }
+                Map<Long, PostingList> index = postings.fields.get(term.getKey());
+                for (long key : keys) {
+                    PostingList list = index.get(key);
+                    if (list == null) {
+                        return new long[0];
+                    }
+                    lists.add(list);
+                }
+            }
+            if (lists.isEmpty()) {
+                return null;
+            }
+
+            // Start from the rarest trigram so the working set only shrinks
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            PostingList first = lists.get(0);
+            long[] result = Arrays.copyOf(first.ids, first.size);
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = intersect(result, lists.get(i));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long[] intersect(long[] ids, PostingList list) {
+        long[] out = new long[Math.min(ids.length, list.size)];
+        int n = 0;
+        int j = 0;
+        for (long id : ids) {
+            while (j < list.size && list.ids[j] < id) {
+                j++;
+            }
+            if (j == list.size) {
+                break;
+            }
+            if (list.ids[j] == id) {
+                out[n++] = id;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long lookups = indexedLookups.sum() + fallbackLookups.sum();
+        lock.readLock().lock();
+        try {
+            for (Field field : Field.values()) {
+                stats.put(field.name().toLowerCase() + "Trigrams", postings.fields.get(field).size());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("ready", ready);
+        stats.put("indexedLookups", indexedLookups.sum());
+        stats.put("fallbackLookups", fallbackLookups.sum());
+        stats.put("averageLookupMs", lookups == 0 ? 0.0 : lookupNanos.sum() / 1_000_000.0 / lookups);
+        return stats;
+    }
+}
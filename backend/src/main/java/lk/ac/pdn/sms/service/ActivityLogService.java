@@ -1,68 +1,235 @@
 package lk.ac.pdn.sms.service;
 
+import lk.ac.pdn.sms.dto.ActivityLogFilter;
+import lk.ac.pdn.sms.dto.KeysetCursor;
 import lk.ac.pdn.sms.entity.ActivityLog;
-import lk.ac.pdn.sms.entity.AdminUser;
-import lk.ac.pdn.sms.repository.ActivityLogRepository;
-import lk.ac.pdn.sms.repository.AdminUserRepository;
+import lk.ac.pdn.sms.exception.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
 
 @Service
 public class ActivityLogService {
 
+    static final String SELECT_COLUMNS = "SELECT id, user_id, user_name, action, target, timestamp FROM activity_logs";
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
-    private ActivityLogRepository activityLogRepository;
+    private ActivityLogWriter activityLogWriter;
 
     @Autowired
-    private AdminUserRepository adminUserRepository;
+    private JdbcTemplate jdbcTemplate;
 
-    public void logActivity(String action, String target, String userName) {
-        // MODIFIED: Removed + "@pdn.ac.lk" to allow finding users by ANY email (e.g., Gmail)
-        AdminUser user = adminUserRepository.findByEmail(userName).orElse(null);
+    @Autowired
+    private ActivityLogPartitionService activityLogPartitionService;
 
-        ActivityLog log = new ActivityLog();
-        // FIX: Set to null if user not found (instead of 0L)
-        log.setUserId(user != null ? user.getId() : null);
-        log.setUserName(userName);
-        log.setAction(action);
-        log.setTarget(target);
+    @Autowired
+    private ActivityLogSearchIndex activityLogSearchIndex;
 
-        activityLogRepository.save(log);
+    public void logActivity(String action, String target, String userName) {
+        // MODIFIED: Removed + "@pdn.ac.lk" to allow finding users by ANY email (e.g., Gmail)
+        // The user id is resolved from the email by the writer when the batch is flushed
+        enqueue(new ActivityLogWriter.PendingLog(null, userName, userName, action, target, LocalDateTime.now()));
     }
 
     public void logActivity(String action, String target, String adminId, String userName) {
-        ActivityLog log = new ActivityLog();
+        Long userId;
         try {
-            log.setUserId(Long.valueOf(adminId));
+            userId = Long.valueOf(adminId);
         } catch (NumberFormatException | NullPointerException e) {
             // FIX: Set to null if ID invalid
-            log.setUserId(null);
+            userId = null;
+        }
+
+        enqueue(new ActivityLogWriter.PendingLog(userId, null, userName, action, target, LocalDateTime.now()));
+    }
+
+    // Entries logged inside a transaction are only written if that transaction commits
+    private void enqueue(ActivityLogWriter.PendingLog entry) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    activityLogWriter.enqueue(entry);
+                }
+            });
+        } else {
+            activityLogWriter.enqueue(entry);
         }
+    }
 
-        log.setUserName(userName);
-        log.setAction(action);
-        log.setTarget(target);
+    /**
+     * One page of the audit trail, newest first, keyset-paginated on (timestamp, id).
+     * Each page costs the same regardless of how deep the client has scrolled.
+     */
+    public Map<String, Object> getLogPage(ActivityLogFilter filter, String cursorToken, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(cursorToken);
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
 
-        activityLogRepository.save(log);
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        List<ActivityLog> items = new ArrayList<>();
+        if (appendFilter(filter, sql, args)) {
+            if (cursor != null) {
+                LocalDateTime after = parseCursorTimestamp(cursor);
+                sql.append(" AND (timestamp < ? OR (timestamp = ? AND id < ?))");
+                args.add(after);
+                args.add(after);
+                args.add(cursor.id());
+            }
+            sql.append(" ORDER BY timestamp DESC, id DESC LIMIT ?");
+            // One extra row tells us whether another page exists
+            args.add(limit + 1);
+            items = jdbcTemplate.query(sql.toString(), ActivityLogService::mapRow, args.toArray());
+        }
+
+        boolean hasMore = items.size() > limit;
+        if (hasMore) {
+            items = items.subList(0, limit);
+        }
+        ActivityLog last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", items);
+        page.put("size", items.size());
+        page.put("hasMore", hasMore);
+        page.put("nextCursor", hasMore ? KeysetCursor.of(last.getTimestamp(), last.getId()).encode() : null);
+        return page;
     }
 
-    public List<ActivityLog> getAllLogs() {
-        return activityLogRepository.findAll();
+    /**
+     * Appends the filter as SQL predicates; a filter without {@code from} starts at the
+     * hot window (see {@link ActivityLogPartitionService#hotWindowStart()}). Returns false when the trigram index already
+     * proves that nothing can match, in which case the query need not run.
+     */
+    boolean appendFilter(ActivityLogFilter filter, StringBuilder sql, List<Object> args) {
+        return appendFilter(filter, sql, args, true);
     }
 
-    public Page<ActivityLog> getActivityLogs(String userFilter, String actionFilter, Pageable pageable) {
-        if (userFilter != null && !userFilter.isEmpty() && actionFilter != null && !actionFilter.isEmpty()) {
-            return activityLogRepository.findByUserNameContainingAndActionContaining(userFilter, actionFilter, pageable);
-        } else if (userFilter != null && !userFilter.isEmpty()) {
-            return activityLogRepository.findByUserNameContaining(userFilter, pageable);
-        } else if (actionFilter != null && !actionFilter.isEmpty()) {
-            return activityLogRepository.findByActionContaining(actionFilter, pageable);
+    private boolean appendFilter(ActivityLogFilter filter, StringBuilder sql, List<Object> args, boolean useIndex) {
+        if (filter == null) {
+            filter = new ActivityLogFilter();
+        }
+        String user = blankToNull(filter.getUser());
+        String action = blankToNull(filter.getAction());
+        String target = blankToNull(filter.getTarget());
+
+        if (useIndex && (user != null || action != null || target != null)) {
+            Map<ActivityLogSearchIndex.Field, String> terms = new EnumMap<>(ActivityLogSearchIndex.Field.class);
+            if (user != null) {
+                terms.put(ActivityLogSearchIndex.Field.USER_NAME, user);
+            }
+            if (action != null) {
+                terms.put(ActivityLogSearchIndex.Field.ACTION, action);
+            }
+            if (target != null) {
+                terms.put(ActivityLogSearchIndex.Field.TARGET, target);
+            }
+            Set<Long> candidates = activityLogSearchIndex.candidates(terms);
+            if (candidates != null) {
+                if (candidates.isEmpty()) {
+                    return false;
+                }
+                sql.append(" AND id IN (").append(String.join(",", Collections.nCopies(candidates.size(), "?"))).append(")");
+                args.addAll(candidates);
+            }
         }
+        appendLike(sql, args, "user_name", user);
+        appendLike(sql, args, "action", action);
+        appendLike(sql, args, "target", target);
+        // Without a start, only the hot window is read, so MySQL prunes to the recent partitions
+        sql.append(" AND timestamp >= ?");
+        args.add(filter.getFrom() != null ? filter.getFrom() : activityLogPartitionService.hotWindowStart());
+        if (filter.getTo() != null) {
+            sql.append(" AND timestamp < ?");
+            args.add(filter.getTo());
+        }
+        return true;
+    }
 
-        return activityLogRepository.findAll(pageable);
+    /**
+     * Times the same filtered count with and without the trigram index, on the live table.
+     * Each side runs {@code runs} times and the best time is reported, so a cold buffer
+     * pool on the first run does not decide the comparison.
+     */
+    public Map<String, Object> compareSearch(ActivityLogFilter filter, int runs) {
+        int repeat = Math.max(1, Math.min(runs, 10));
+        long indexedNanos = Long.MAX_VALUE;
+        long likeNanos = Long.MAX_VALUE;
+        long indexedRows = 0;
+        long likeRows = 0;
+        for (int i = 0; i < repeat; i++) {
+            long started = System.nanoTime();
+            indexedRows = countMatches(filter, true);
+            indexedNanos = Math.min(indexedNanos, System.nanoTime() - started);
+
+            started = System.nanoTime();
+            likeRows = countMatches(filter, false);
+            likeNanos = Math.min(likeNanos, System.nanoTime() - started);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("runs", repeat);
+        result.put("indexedMs", indexedNanos / 1_000_000.0);
+        result.put("likeMs", likeNanos / 1_000_000.0);
+        result.put("indexedRows", indexedRows);
+        result.put("likeRows", likeRows);
+        result.put("indexReady", activityLogSearchIndex.getStatistics().get("ready"));
+        return result;
+    }
+
+    private long countMatches(ActivityLogFilter filter, boolean useIndex) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM activity_logs WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (!appendFilter(filter, sql, args, useIndex)) {
+            return 0;
+        }
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+        return count == null ? 0 : count;
+    }
+
+    public Map<String, Object> getSearchIndexStatistics() {
+        return activityLogSearchIndex.getStatistics();
+    }
+
+    static ActivityLog mapRow(ResultSet rs, int rowNum) throws SQLException {
+        ActivityLog log = new ActivityLog();
+        log.setId(rs.getLong("id"));
+        log.setUserId(rs.getObject("user_id", Long.class));
+        log.setUserName(rs.getString("user_name"));
+        log.setAction(rs.getString("action"));
+        log.setTarget(rs.getString("target"));
+        log.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+        return log;
+    }
+
+    private static void appendLike(StringBuilder sql, List<Object> args, String column, String term) {
+        if (term != null) {
+            sql.append(" AND ").append(column).append(" LIKE ?");
+            args.add("%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return (value == null || value.isBlank()) ? null : value;
+    }
+
+    private static LocalDateTime parseCursorTimestamp(KeysetCursor cursor) {
+        if (cursor.sortKey() == null) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        try {
+            return LocalDateTime.parse(cursor.sortKey());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,268 @@
+package lk.ac.pdn.sms.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lk.ac.pdn.sms.entity.AdminUser;
+import lk.ac.pdn.sms.repository.AdminUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes activity logs off the request path.
+ * Callers enqueue into a bounded lock-free buffer; a single writer thread drains it
+ * and inserts rows with JDBC batches, either when a full batch is waiting or when the
+ * flush interval elapses. Email-to-user-id lookups are resolved once per batch, and the
+ * generated ids are handed to {@link ActivityLogSearchIndex} so searches see new rows.
+ * If the buffer is full the caller writes its own entry synchronously, so nothing is dropped.
+ */
+@Service
+public class ActivityLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO activity_logs (user_id, user_name, action, target, timestamp) VALUES (?, ?, ?, ?, ?)";
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * A log entry waiting to be written. Either {@code userId} is known up front or
+     * it is resolved from {@code userEmail} when the batch is flushed.
+     */
+    public record PendingLog(Long userId, String userEmail, String userName, String action, String target,
+                             LocalDateTime timestamp) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AdminUserRepository adminUserRepository;
+    private final AdminPrincipalCache adminPrincipalCache;
+    private final ActivityLogSearchIndex searchIndex;
+
+    private final ConcurrentLinkedQueue<PendingLog> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    @Value("${app.activity-log.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.activity-log.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${app.activity-log.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    public ActivityLogWriter(JdbcTemplate jdbcTemplate, AdminUserRepository adminUserRepository,
+                             AdminPrincipalCache adminPrincipalCache, ActivityLogSearchIndex searchIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.adminUserRepository = adminUserRepository;
+        this.adminPrincipalCache = adminPrincipalCache;
+        this.searchIndex = searchIndex;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "activity-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        if (!buffer.isEmpty()) {
+            // Writer did not finish in time; drain what is left on the shutdown thread
+            flushAll();
+        }
+    }
+
+    public void enqueue(PendingLog entry) {
+        if (buffered.incrementAndGet() > bufferCapacity) {
+            buffered.decrementAndGet();
+            log.warn("Activity log buffer full ({} entries), writing synchronously", bufferCapacity);
+            writeBatch(List.of(entry));
+            return;
+        }
+        buffer.offer(entry);
+        if (buffered.get() >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    public int getBufferedCount() {
+        return buffered.get();
+    }
+
+    private void runWriter() {
+        while (running || !buffer.isEmpty()) {
+            if (buffered.get() < batchSize && running) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+            try {
+                flushAll();
+            } catch (RuntimeException e) {
+                log.error("Activity log writer failed", e);
+            }
+        }
+    }
+
+    private void flushAll() {
+        List<PendingLog> batch = new ArrayList<>(batchSize);
+        PendingLog entry;
+        while ((entry = buffer.poll()) != null) {
+            buffered.decrementAndGet();
+            batch.add(entry);
+            if (batch.size() == batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<PendingLog> batch) {
+        Map<String, Long> userIds = resolveUserIds(batch);
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+                    try (PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                        for (PendingLog e : batch) {
+                            bind(ps, e, userIdFor(e, userIds));
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                        List<Long> keys = new ArrayList<>(batch.size());
+                        try (ResultSet rs = ps.getGeneratedKeys()) {
+                            while (rs.next()) {
+                                keys.add(rs.getLong(1));
+                            }
+                        }
+                        return keys;
+                    }
+                });
+                for (int i = 0; i < ids.size() && i < batch.size(); i++) {
+                    index(ids.get(i), batch.get(i));
+                }
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // One bad row (e.g. a user id missing from admin_users) must not sink the batch
+                writeIndividually(batch, userIds);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Activity log batch of {} failed (attempt {}/{}): {}", batch.size(), attempt, MAX_ATTEMPTS, e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200L * attempt));
+            }
+        }
+
+        // Keep the audit trail recoverable from the application log
+        for (PendingLog e : batch) {
+            log.error("Lost activity log entry: {}", e);
+        }
+    }
+
+    private void writeIndividually(List<PendingLog> batch, Map<String, Long> userIds) {
+        for (PendingLog e : batch) {
+            Long userId = userIdFor(e, userIds);
+            try {
+                insertOne(e, userId);
+            } catch (DataIntegrityViolationException first) {
+                try {
+                    insertOne(e, null);
+                } catch (RuntimeException second) {
+                    log.error("Lost activity log entry: {} ({})", e, second.getMessage());
+                }
+            } catch (RuntimeException other) {
+                log.error("Lost activity log entry: {} ({})", e, other.getMessage());
+            }
+        }
+    }
+
+    private void insertOne(PendingLog e, Long userId) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+            bind(ps, e, userId);
+            return ps;
+        }, keyHolder);
+        Number id = keyHolder.getKey();
+        if (id != null) {
+            index(id.longValue(), e);
+        }
+    }
+
+    private void index(long id, PendingLog e) {
+        searchIndex.add(id, e.userName(), e.action(), e.target());
+    }
+
+    private static Long userIdFor(PendingLog e, Map<String, Long> userIds) {
+        if (e.userId() != null) {
+            return e.userId();
+        }
+        return e.userEmail() != null ? userIds.get(e.userEmail().toLowerCase()) : null;
+    }
+
+    private static void bind(PreparedStatement ps, PendingLog e, Long userId) throws SQLException {
+        if (userId != null) {
+            ps.setLong(1, userId);
+        } else {
+            ps.setNull(1, Types.BIGINT);
+        }
+        ps.setString(2, e.userName());
+        ps.setString(3, e.action());
+        ps.setString(4, e.target());
+        ps.setTimestamp(5, Timestamp.valueOf(e.timestamp()));
+    }
+
+    private Map<String, Long> resolveUserIds(List<PendingLog> batch) {
+        Map<String, Long> ids = new HashMap<>();
+        Set<String> emails = new HashSet<>();
+        for (PendingLog e : batch) {
+            if (e.userId() == null && e.userEmail() != null) {
+                // Admins active in this process are usually cached already
+                Long cached = adminPrincipalCache.peekId(e.userEmail());
+                if (cached != null) {
+                    ids.put(e.userEmail().toLowerCase(), cached);
+                } else {
+                    emails.add(e.userEmail());
+                }
+            }
+        }
+        if (emails.isEmpty()) {
+            return ids;
+        }
+
+        try {
+            for (AdminUser user : adminUserRepository.findByEmailIn(emails)) {
+                ids.put(user.getEmail().toLowerCase(), user.getId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not resolve activity log users: {}", e.getMessage());
+        }
+        return ids;
+    }
+}
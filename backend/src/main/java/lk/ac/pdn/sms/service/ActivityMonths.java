@@ -0,0 +1,47 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.exception.BadRequestException;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * The application forms collect planning events and previous activities by month
+ * ("January", "Mar", "2025-03" or a full date), while the entities store a date.
+ */
+final class ActivityMonths {
+
+    private ActivityMonths() {
+    }
+
+    /**
+     * First day of the given month in {@code year}; a blank month means January.
+     * Unrecognised text is a client error reported against {@code field}.
+     */
+    static LocalDate toDate(String month, int year, String field) {
+        if (month == null || month.isBlank()) {
+            return LocalDate.of(year, 1, 1);
+        }
+        String value = month.trim();
+        try {
+            if (value.length() == 7) {
+                return YearMonth.parse(value).atDay(1);
+            }
+            if (value.length() == 10) {
+                return LocalDate.parse(value);
+            }
+        } catch (DateTimeParseException ignored) {
+            // fall through to month names
+        }
+        String upper = value.toUpperCase(Locale.ROOT);
+        for (Month m : Month.values()) {
+            if (m.name().equals(upper) || (upper.length() >= 3 && m.name().startsWith(upper))) {
+                return LocalDate.of(year, m, 1);
+            }
+        }
+        throw new BadRequestException("Invalid month in " + field + ": " + month);
+    }
+}
@@ -0,0 +1,105 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.entity.AdminUser;
+import lk.ac.pdn.sms.repository.AdminUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admin users by e-mail for authenticated requests, so the controller, the services it
+ * calls and the activity log do not each look the admin up. Entries live for
+ * {@code app.admin-cache.ttl-seconds} and are evicted when {@link AdminService} adds or
+ * deactivates an admin. Within a web request the resolved admin is also kept as a request
+ * attribute, so repeated calls in one request skip even the map. Returned objects are
+ * detached copies without the password; they must not be saved.
+ */
+@Service
+public class AdminPrincipalCache {
+
+    private static final String REQUEST_ATTRIBUTE = AdminPrincipalCache.class.getName() + ".admin";
+
+    private record Entry(AdminUser admin, long expiresAt) {
+    }
+
+    private final AdminUserRepository adminUserRepository;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${app.admin-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.admin-cache.max-entries:1000}")
+    private int maxEntries;
+
+    public AdminPrincipalCache(AdminUserRepository adminUserRepository) {
+        this.adminUserRepository = adminUserRepository;
+    }
+
+    public Optional<AdminUser> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        String key = email.toLowerCase(Locale.ROOT);
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AdminUser current
+                && current.getEmail().equalsIgnoreCase(key)) {
+            return Optional.of(copy(current));
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt() < now) {
+            AdminUser loaded = adminUserRepository.findByEmail(email).orElse(null);
+            if (loaded == null) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+            if (entries.size() >= maxEntries) {
+                entries.values().removeIf(e -> e.expiresAt() < now);
+            }
+            entry = new Entry(copy(loaded), now + ttlSeconds * 1000);
+            entries.put(key, entry);
+        }
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, entry.admin(), RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(copy(entry.admin()));
+    }
+
+    /**
+     * Id of a cached admin, without going to the database.
+     */
+    public Long peekId(String email) {
+        if (email == null) {
+            return null;
+        }
+        Entry entry = entries.get(email.toLowerCase(Locale.ROOT));
+        return entry == null || entry.expiresAt() < System.currentTimeMillis() ? null : entry.admin().getId();
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            entries.remove(email.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static AdminUser copy(AdminUser source) {
+        AdminUser admin = new AdminUser();
+        admin.setId(source.getId());
+        admin.setName(source.getName());
+        admin.setEmail(source.getEmail());
+        admin.setRole(source.getRole());
+        admin.setFaculty(source.getFaculty());
+        admin.setIsActive(source.getIsActive());
+        admin.setCreatedAt(source.getCreatedAt());
+        admin.setUpdatedAt(source.getUpdatedAt());
+        return admin;
+    }
+}
@@ -4,6 +4,7 @@ import lk.ac.pdn.sms.dto.AdminUserManagementDto;
 import lk.ac.pdn.sms.entity.*;
 import lk.ac.pdn.sms.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -34,6 +35,18 @@ public class AdminService {
     @Autowired
     private ActivityLogService activityLogService;
 
+    @Autowired
+    private UpcomingEventsFeed upcomingEventsFeed;
+
+    @Autowired
+    private AdminPrincipalCache adminPrincipalCache;
+
+    @Value("${app.events.dashboard-upcoming-limit:10}")
+    private int dashboardUpcomingLimit;
+
+    @Value("${app.events.dashboard-upcoming-days:60}")
+    private int dashboardUpcomingDays;
+
     // FIX: Changed parameter from String (email) to AdminUser (object)
     public Map<String, Object> getDashboardData(AdminUser admin) {
 
@@ -80,7 +93,7 @@ public class AdminService {
         }
 
         dashboardData.put("pendingApprovals", pendingCount);
-        dashboardData.put("upcomingEvents", eventPermissionRepository.findUpcomingApprovedEvents());
+        dashboardData.put("upcomingEvents", upcomingEventsFeed.getUpcoming(dashboardUpcomingLimit, dashboardUpcomingDays));
         dashboardData.put("adminInfo", admin);
 
         return dashboardData;
@@ -96,18 +109,18 @@ public class AdminService {
         admin.setRole(dto.getRole());
         admin.setFaculty(dto.getFaculty());
         admin.setIsActive(true);
-        return adminUserRepository.save(admin);
+        admin = adminUserRepository.save(admin);
+        adminPrincipalCache.evict(admin.getEmail());
+        return admin;
     }
 
     public AdminUser removeAdmin(String email) {
         AdminUser admin = adminUserRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Admin not found"));
         admin.setIsActive(false);
-        return adminUserRepository.save(admin);
-    }
-
-    public Page<ActivityLog> getActivityLogs(String userFilter, String actionFilter, Pageable pageable) {
-        return activityLogService.getActivityLogs(userFilter, actionFilter, pageable);
+        admin = adminUserRepository.save(admin);
+        adminPrincipalCache.evict(email);
+        return admin;
     }
 
     public Page<Object> getAdminSocieties(Integer year, String status, Pageable pageable) {
@@ -119,7 +132,7 @@ public class AdminService {
     }
 
     public void sendBulkEmail(Object emailRequest, String senderEmail) {
-        AdminUser sender = adminUserRepository.findByEmail(senderEmail)
+        AdminUser sender = adminPrincipalCache.findByEmail(senderEmail)
                 .orElseThrow(() -> new RuntimeException("Sender not found"));
         activityLogService.logActivity("Bulk Email Sent", "Multiple Recipients", sender.getName());
     }
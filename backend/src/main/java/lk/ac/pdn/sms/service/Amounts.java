@@ -0,0 +1,48 @@
+package lk.ac.pdn.sms.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses rupee amounts as applicants type them ("Rs. 25,000/-", "LKR 1500.00", "50k",
+ * "2 lakhs", "Free") into a decimal with two places.
+ */
+final class Amounts {
+
+    private static final Pattern NUMBER = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*(k|lakhs?|lks?|mn|million)?\\b");
+    private static final Pattern NOTHING = Pattern.compile("\\b(free|nil|none|no fee)\\b");
+    // Fits DECIMAL(14,2)
+    private static final BigDecimal MAX = new BigDecimal("999999999999.99");
+
+    private Amounts() {
+    }
+
+    /**
+     * The first amount in {@code text}, zero for "free" and the like, or null when there is none.
+     * For a range such as "20,000 - 25,000" the lower figure is taken.
+     */
+    static BigDecimal parse(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String s = text.toLowerCase(Locale.ROOT).replace(",", "");
+        Matcher matcher = NUMBER.matcher(s);
+        if (!matcher.find()) {
+            return NOTHING.matcher(s).find() ? BigDecimal.ZERO.setScale(2) : null;
+        }
+        BigDecimal amount = new BigDecimal(matcher.group(1));
+        String unit = matcher.group(2);
+        if (unit != null) {
+            amount = amount.multiply(switch (unit.charAt(0)) {
+                case 'k' -> BigDecimal.valueOf(1_000);
+                case 'l' -> BigDecimal.valueOf(100_000);
+                default -> BigDecimal.valueOf(1_000_000);
+            });
+        }
+        amount = amount.setScale(2, RoundingMode.HALF_UP);
+        return amount.compareTo(MAX) > 0 ? null : amount;
+    }
+}
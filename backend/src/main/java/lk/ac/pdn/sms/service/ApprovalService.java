@@ -1,6 +1,7 @@
 package lk.ac.pdn.sms.service;
 
 import lk.ac.pdn.sms.dto.ApprovalDto;
+import lk.ac.pdn.sms.entity.AdminUser;
 import lk.ac.pdn.sms.entity.EventPermission;
 import lk.ac.pdn.sms.entity.Society;
 import lk.ac.pdn.sms.entity.SocietyRegistration;
@@ -9,10 +10,14 @@ import lk.ac.pdn.sms.repository.EventPermissionRepository;
 import lk.ac.pdn.sms.repository.SocietyRepository;
 import lk.ac.pdn.sms.repository.SocietyRegistrationRepository;
 import lk.ac.pdn.sms.repository.SocietyRenewalRepository;
+import lk.ac.pdn.sms.exception.ConflictException;
+import lk.ac.pdn.sms.exception.ForbiddenException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,15 +29,21 @@ public class ApprovalService {
     private final SocietyRenewalRepository renewalRepository;
     private final EventPermissionRepository eventPermissionRepository;
     private final SocietyRepository societyRepository;
+    private final RenewalPrefillService renewalPrefillService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ApprovalService(SocietyRegistrationRepository registrationRepository,
                            SocietyRenewalRepository renewalRepository,
                            EventPermissionRepository eventPermissionRepository,
-                           SocietyRepository societyRepository) {
+                           SocietyRepository societyRepository,
+                           RenewalPrefillService renewalPrefillService,
+                           ApplicationEventPublisher eventPublisher) {
         this.registrationRepository = registrationRepository;
         this.renewalRepository = renewalRepository;
         this.eventPermissionRepository = eventPermissionRepository;
         this.societyRepository = societyRepository;
+        this.renewalPrefillService = renewalPrefillService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<ApprovalDto> getDeanPendingApprovals(String faculty) {
@@ -95,6 +106,7 @@ public class ApprovalService {
                 case PENDING_VC:
                     reg.setStatus(SocietyRegistration.ApprovalStage.APPROVED);
                     createSocietyFromRegistration(reg);
+                    renewalPrefillService.evict(reg.getSocietyName());
                     break;
                 default:
                     break;
@@ -120,6 +132,7 @@ public class ApprovalService {
                     break;
                 case PENDING_VC:
                     renewal.setStatus(SocietyRenewal.RenewalStatus.APPROVED);
+                    renewalPrefillService.evict(renewal.getSocietyName());
                     break;
                 default:
                     break;
@@ -128,30 +141,77 @@ public class ApprovalService {
         renewalRepository.save(renewal);
     }
 
+    /**
+     * Approves or rejects an event request at its current stage. Only the AR may act on
+     * PENDING_AR and only the VC on PENDING_VC.
+     */
     @Transactional
-    public void processEventPermissionApproval(Long id, ApprovalDto dto) {
-        EventPermission event = eventPermissionRepository.findById(id)
+    public void processEventPermissionApproval(Long id, ApprovalDto dto, AdminUser.Role callerRole) {
+        EventPermission event = eventPermissionRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Event request not found"));
 
+        EventPermission.EventStatus previousStatus = event.getStatus();
+        AdminUser.Role stageRole = switch (previousStatus) {
+            case PENDING_AR -> AdminUser.Role.ASSISTANT_REGISTRAR;
+            case PENDING_VC -> AdminUser.Role.VICE_CHANCELLOR;
+            default -> throw new ConflictException("Event request is already " + previousStatus);
+        };
+        if (callerRole != stageRole) {
+            throw new ForbiddenException("Event request is awaiting " + stageRole);
+        }
         if (dto.getStatus() != null && dto.getStatus().contains("REJECTED")) {
             event.setStatus(EventPermission.EventStatus.REJECTED);
+            event.setRejectionReason(dto.getRejectionReason());
         } else {
             if (event.getStatus() == EventPermission.EventStatus.PENDING_AR) {
                 event.setStatus(EventPermission.EventStatus.PENDING_VC);
+                event.setArApprovalDate(LocalDateTime.now());
             } else if (event.getStatus() == EventPermission.EventStatus.PENDING_VC) {
+                checkNoApprovedConflictLocked(event);
                 event.setStatus(EventPermission.EventStatus.APPROVED);
+                event.setVcApprovalDate(LocalDateTime.now());
+            }
+        }
+        event = eventPermissionRepository.save(event);
+        if (event.getStatus() != previousStatus) {
+            eventPublisher.publishEvent(new EventPermissionChangedEvent(event, previousStatus));
+        }
+    }
+
+    /**
+     * Final-approval venue check against the database rather than {@link VenueBookingIndex},
+     * which only sees other approvals once they commit. Locking every pending-VC and approved
+     * row on the event's date makes concurrent final approvals for that day take turns, so the
+     * second one sees the first as APPROVED.
+     */
+    private void checkNoApprovedConflictLocked(EventPermission event) {
+        if (event.getPlace() == null || event.getEventDate() == null) {
+            return;
+        }
+        String venue = VenueBookingIndex.normaliseVenue(event.getPlace());
+        int start = VenueBookingIndex.startMinute(event.getTimeFrom());
+        int end = VenueBookingIndex.endMinute(event.getTimeFrom(), event.getTimeTo());
+        List<EventPermission> sameDay = eventPermissionRepository.findByStatusInAndEventDateForUpdate(
+                List.of(EventPermission.EventStatus.PENDING_VC, EventPermission.EventStatus.APPROVED), event.getEventDate());
+        for (EventPermission other : sameDay) {
+            if (other.getStatus() == EventPermission.EventStatus.APPROVED && !other.getId().equals(event.getId())
+                    && venue.equals(VenueBookingIndex.normaliseVenue(other.getPlace()))
+                    && VenueBookingIndex.startMinute(other.getTimeFrom()) < end
+                    && start < VenueBookingIndex.endMinute(other.getTimeFrom(), other.getTimeTo())) {
+                throw new ConflictException(event.getPlace() + " is already booked on " + event.getEventDate()
+                        + " from " + other.getTimeFrom() + " to " + other.getTimeTo());
             }
         }
-        eventPermissionRepository.save(event);
     }
 
     private void createSocietyFromRegistration(SocietyRegistration reg) {
-        if (societyRepository.findBySocietyName(reg.getSocietyName()).isPresent()) {
+        if (societyRepository.existsByNormalizedName(Society.normalizeName(reg.getSocietyName()))) {
             return;
         }
 
         Society society = new Society();
         society.setSocietyName(reg.getSocietyName());
+        society.setPrimaryFaculty(reg.getApplicantFaculty());
         society.setStatus(Society.SocietyStatus.ACTIVE);
         society.setRegisteredDate(LocalDate.now());
         society.setYear(LocalDate.now().getYear());
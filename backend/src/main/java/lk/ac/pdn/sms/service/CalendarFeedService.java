@@ -0,0 +1,265 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.entity.EventPermission;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * iCalendar (RFC 5545) feed of approved events, optionally for one society or for the
+ * societies of one faculty. The feed version changes whenever an event enters or leaves
+ * the approved state, and is used as the ETag so polling calendar clients get 304s.
+ * A rendered feed is cached per filter until the version changes; otherwise it is streamed
+ * from a database cursor straight to the client, keeping a copy if it is small enough.
+ */
+@Service
+public class CalendarFeedService {
+
+    private static final DateTimeFormatter UTC_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private record CachedFeed(long version, byte[] body) {
+    }
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final Map<String, CachedFeed> cache = new ConcurrentHashMap<>();
+    // Boot time keeps ETags from an earlier run from matching after a restart
+    private final long bootId = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    @Value("${app.calendar.time-zone:Asia/Colombo}")
+    private String timeZone;
+
+    @Value("${app.calendar.past-days:90}")
+    private int pastDays;
+
+    @Value("${app.calendar.max-cached-bytes:1048576}")
+    private int maxCachedBytes;
+
+    @Value("${app.calendar.max-cached-feeds:256}")
+    private int maxCachedFeeds;
+
+    @Value("${app.calendar.uid-domain:sms.pdn.ac.lk}")
+    private String uidDomain;
+
+    public CalendarFeedService(DataSource dataSource) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventPermissionChanged(EventPermissionChangedEvent change) {
+        if (change.event().getStatus() == EventPermission.EventStatus.APPROVED
+                || change.previousStatus() == EventPermission.EventStatus.APPROVED) {
+            version.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    public String etag(String faculty, String society) {
+        return "\"cal-" + bootId + "-" + version.get() + "-" + Integer.toHexString(cacheKey(faculty, society).hashCode()) + "\"";
+    }
+
+    public void write(String faculty, String society, OutputStream out) throws IOException {
+        String key = cacheKey(faculty, society);
+        long current = version.get();
+        CachedFeed cached = cache.get(key);
+        if (cached != null && cached.version() == current) {
+            out.write(cached.body());
+            return;
+        }
+
+        CapturingOutputStream capture = new CapturingOutputStream(out, maxCachedBytes);
+        render(faculty, society, capture);
+        capture.flush();
+        byte[] body = capture.captured();
+        if (body != null && version.get() == current) {
+            if (cache.size() >= maxCachedFeeds) {
+                cache.clear();
+            }
+            cache.put(key, new CachedFeed(current, body));
+        }
+    }
+
+    private void render(String faculty, String society, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT e.id, e.event_name, e.society_name, e.event_date, e.time_from, e.time_to, e.place, e.updated_at " +
+                "FROM event_permissions e");
+        List<Object> args = new ArrayList<>();
+        if (faculty != null && !faculty.isBlank()) {
+            sql.append(" JOIN societies s ON s.society_name = e.society_name AND s.primary_faculty = ?");
+            args.add(faculty.trim());
+        }
+        sql.append(" WHERE e.status = 'APPROVED' AND e.event_date >= ?");
+        args.add(Date.valueOf(LocalDate.now().minusDays(pastDays)));
+        if (society != null && !society.isBlank()) {
+            sql.append(" AND e.society_name = ?");
+            args.add(society.trim());
+        }
+        sql.append(" ORDER BY e.event_date, e.id");
+
+        ZoneId zone = ZoneId.of(timeZone);
+        String now = UTC_STAMP.format(Instant.now().atOffset(ZoneOffset.UTC));
+
+        line(out, "BEGIN:VCALENDAR");
+        line(out, "VERSION:2.0");
+        line(out, "PRODID:-//University of Peradeniya//Society Management System//EN");
+        line(out, "CALSCALE:GREGORIAN");
+        line(out, "METHOD:PUBLISH");
+        line(out, "X-WR-CALNAME:" + escape(calendarName(faculty, society)));
+        try {
+            streamingJdbcTemplate.query(sql.toString(), rs -> {
+                try {
+                    writeEvent(rs, zone, now, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray());
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; stop reading the cursor
+            throw e.getCause();
+        }
+        line(out, "END:VCALENDAR");
+    }
+
+    private void writeEvent(ResultSet rs, ZoneId zone, String now, OutputStream out) throws SQLException, IOException {
+        LocalDate date = rs.getDate("event_date").toLocalDate();
+        Time from = rs.getTime("time_from");
+        Time to = rs.getTime("time_to");
+        Timestamp updated = rs.getTimestamp("updated_at");
+
+        line(out, "BEGIN:VEVENT");
+        line(out, "UID:event-" + rs.getLong("id") + "@" + uidDomain);
+        line(out, "DTSTAMP:" + (updated != null
+                ? UTC_STAMP.format(updated.toLocalDateTime().atZone(zone).withZoneSameInstant(ZoneOffset.UTC))
+                : now));
+        if (from == null) {
+            line(out, "DTSTART;VALUE=DATE:" + DATE.format(date));
+            line(out, "DTEND;VALUE=DATE:" + DATE.format(date.plusDays(1)));
+        } else {
+            ZonedDateTime start = date.atTime(from.toLocalTime()).atZone(zone);
+            ZonedDateTime end = to != null && to.toLocalTime().isAfter(from.toLocalTime())
+                    ? date.atTime(to.toLocalTime()).atZone(zone)
+                    : start.plusHours(1);
+            line(out, "DTSTART:" + UTC_STAMP.format(start.withZoneSameInstant(ZoneOffset.UTC)));
+            line(out, "DTEND:" + UTC_STAMP.format(end.withZoneSameInstant(ZoneOffset.UTC)));
+        }
+        line(out, "SUMMARY:" + escape(rs.getString("event_name")));
+        line(out, "LOCATION:" + escape(rs.getString("place")));
+        line(out, "DESCRIPTION:" + escape("Organised by " + rs.getString("society_name")));
+        line(out, "END:VEVENT");
+    }
+
+    private static String calendarName(String faculty, String society) {
+        if (society != null && !society.isBlank()) {
+            return society.trim() + " events";
+        }
+        if (faculty != null && !faculty.isBlank()) {
+            return "Society events - " + faculty.trim();
+        }
+        return "Society events";
+    }
+
+    private static String cacheKey(String faculty, String society) {
+        return (faculty == null ? "" : faculty.trim()) + "|" + (society == null ? "" : society.trim());
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "");
+    }
+
+    // Content lines are folded at 75 octets (RFC 5545 3.1) without splitting a UTF-8 sequence
+    private static void line(OutputStream out, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        int start = 0;
+        int limit = 75;
+        while (bytes.length - start > limit) {
+            int end = start + limit;
+            while ((bytes[end] & 0xC0) == 0x80) {
+                end--;
+            }
+            out.write(bytes, start, end - start);
+            out.write(new byte[]{'\r', '\n', ' '});
+            start = end;
+            limit = 74;
+        }
+        out.write(bytes, start, bytes.length - start);
+        out.write('\r');
+        out.write('\n');
+    }
+
+    /**
+     * Passes everything through and keeps a copy until {@code limit} bytes, after which the copy is dropped.
+     */
+    private static final class CapturingOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream(8192);
+
+        CapturingOutputStream(OutputStream out, int limit) {
+            this.out = out;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (copy != null) {
+                copy.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (copy != null) {
+                copy.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        byte[] captured() {
+            return copy == null ? null : copy.toByteArray();
+        }
+
+        private void checkLimit() {
+            if (copy.size() > limit) {
+                copy = null;
+            }
+        }
+    }
+}
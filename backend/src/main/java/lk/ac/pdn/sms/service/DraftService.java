@@ -0,0 +1,217 @@
+package lk.ac.pdn.sms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lk.ac.pdn.sms.dto.SocietyRegistrationDto;
+import lk.ac.pdn.sms.dto.SocietyRenewalDto;
+import lk.ac.pdn.sms.entity.ApplicationDraft;
+import lk.ac.pdn.sms.exception.BadRequestException;
+import lk.ac.pdn.sms.exception.ConflictException;
+import lk.ac.pdn.sms.exception.PreconditionFailedException;
+import lk.ac.pdn.sms.exception.ResourceNotFoundException;
+import lk.ac.pdn.sms.repository.ApplicationDraftRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Server-side drafts of registration and renewal forms. Autosave sends a JSON Merge Patch
+ * or JSON Patch with just the fields that changed instead of the whole form; the draft is
+ * stored gzip-compressed. Clients can send {@code If-Match} with the version they last saw
+ * to avoid overwriting a save made from another tab. Submitting a draft validates it as the
+ * normal submission DTO and runs the usual submit path; the draft is deleted in the same
+ * transaction.
+ */
+@Service
+public class DraftService {
+
+    private static final Logger log = LoggerFactory.getLogger(DraftService.class);
+
+    public static final String MERGE_PATCH = "application/merge-patch+json";
+    public static final String JSON_PATCH = "application/json-patch+json";
+
+    private final ApplicationDraftRepository draftRepository;
+    private final SocietyService societyService;
+    private final RenewalService renewalService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app.drafts.max-size-bytes:1048576}")
+    private int maxSizeBytes;
+
+    @Value("${app.drafts.retention-days:60}")
+    private long retentionDays;
+
+    public DraftService(ApplicationDraftRepository draftRepository,
+                        SocietyService societyService,
+                        RenewalService renewalService,
+                        ObjectMapper objectMapper,
+                        Validator validator) {
+        this.draftRepository = draftRepository;
+        this.societyService = societyService;
+        this.renewalService = renewalService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    @Transactional
+    public Map<String, Object> createDraft(ApplicationDraft.DraftType type, JsonNode content) {
+        if (content == null || content.isNull()) {
+            content = objectMapper.createObjectNode();
+        }
+        checkShape(content);
+
+        ApplicationDraft draft = new ApplicationDraft();
+        draft.setId(UUID.randomUUID().toString());
+        draft.setType(type);
+        draft.setContent(compress(content));
+        return summary(draftRepository.save(draft));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDraft(ApplicationDraft.DraftType type, String id) {
+        ApplicationDraft draft = findDraft(type, id);
+        Map<String, Object> result = summary(draft);
+        result.put("content", decompress(draft.getContent()));
+        return result;
+    }
+
+    @Transactional
+    public Map<String, Object> patchDraft(ApplicationDraft.DraftType type, String id, String contentType,
+                                          JsonNode patch, Long expectedVersion) {
+        ApplicationDraft draft = findDraft(type, id);
+        if (expectedVersion != null && !expectedVersion.equals(draft.getVersion())) {
+            throw new PreconditionFailedException("Draft has changed since version " + expectedVersion);
+        }
+
+        JsonNode content = decompress(draft.getContent());
+        JsonNode patched;
+        if (contentType != null && contentType.startsWith(JSON_PATCH)) {
+            patched = JsonPatches.apply(content, patch);
+        } else {
+            patched = JsonPatches.mergePatch(content, patch);
+        }
+        checkShape(patched);
+        draft.setContent(compress(patched));
+
+        try {
+            return summary(draftRepository.saveAndFlush(draft));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException("Draft was saved concurrently, reload it and retry");
+        }
+    }
+
+    @Transactional
+    public void deleteDraft(ApplicationDraft.DraftType type, String id) {
+        draftRepository.delete(findDraft(type, id));
+    }
+
+    /**
+     * Validates the draft as a full submission and submits it. Returns the created registration or renewal.
+     */
+    @Transactional
+    public Object submitDraft(ApplicationDraft.DraftType type, String id) {
+        ApplicationDraft draft = findDraft(type, id);
+        JsonNode content = decompress(draft.getContent());
+
+        Object result;
+        if (type == ApplicationDraft.DraftType.REGISTRATION) {
+            result = societyService.registerSociety(validated(content, SocietyRegistrationDto.class));
+        } else {
+            result = renewalService.submitRenewal(validated(content, SocietyRenewalDto.class));
+        }
+        draftRepository.delete(draft);
+        return result;
+    }
+
+    @Scheduled(cron = "${app.drafts.cleanup-cron:0 30 3 * * *}")
+    public void purgeAbandoned() {
+        int removed = draftRepository.deleteByUpdatedAtBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (removed > 0) {
+            log.info("Removed {} abandoned application drafts", removed);
+        }
+    }
+
+    private ApplicationDraft findDraft(ApplicationDraft.DraftType type, String id) {
+        return draftRepository.findByIdAndType(id, type)
+                .orElseThrow(() -> new ResourceNotFoundException("Draft not found: " + id));
+    }
+
+    private <T> T validated(JsonNode content, Class<T> dtoType) {
+        T dto;
+        try {
+            dto = objectMapper.treeToValue(content, dtoType);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Draft cannot be read as a submission: " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException("Draft is incomplete: " + violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return dto;
+    }
+
+    private void checkShape(JsonNode content) {
+        if (!content.isObject()) {
+            throw new BadRequestException("Draft content must be a JSON object");
+        }
+    }
+
+    private Map<String, Object> summary(ApplicationDraft draft) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("id", draft.getId());
+        summary.put("type", draft.getType());
+        summary.put("version", draft.getVersion());
+        summary.put("updatedAt", draft.getUpdatedAt());
+        return summary;
+    }
+
+    private byte[] compress(JsonNode content) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(content);
+            if (json.length > maxSizeBytes) {
+                throw new BadRequestException("Draft exceeds " + maxSizeBytes + " bytes");
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (OutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(json);
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonNode decompress(byte[] content) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
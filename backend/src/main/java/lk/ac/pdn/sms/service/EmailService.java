@@ -369,6 +369,89 @@ public class EmailService {
         mailSender.send(message);
     }
 
+    @Async
+    public void sendEventDayReminder(EventPermission event) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(event.getApplicantEmail());
+        message.setSubject("Reminder: " + event.getEventName() + " on " + event.getEventDate());
+        message.setText(String.format(
+                "Dear %s,\n\n" +
+                        "This is a reminder that your approved event '%s' is scheduled for:\n\n" +
+                        "Date: %s\n" +
+                        "Time: %s - %s\n" +
+                        "Venue: %s\n\n" +
+                        "Please ensure all university guidelines are followed during the event.\n\n" +
+                        "Best regards,\n" +
+                        "Student Service Division",
+                event.getApplicantName(),
+                event.getEventName(),
+                event.getEventDate(),
+                event.getTimeFrom(),
+                event.getTimeTo(),
+                event.getPlace()
+        ));
+        mailSender.send(message);
+    }
+
+    @Async
+    public void sendLatePassNotice(EventPermission event) {
+        List<AdminUser> admins = adminUserRepository.findByRole(AdminUser.Role.STUDENT_SERVICE);
+
+        for (AdminUser admin : admins) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(admin.getEmail());
+            message.setSubject("Late Pass Required Today: " + event.getEventName());
+            message.setText(String.format(
+                    "Dear %s,\n\n" +
+                            "The following approved event takes place today and requires late passes.\n\n" +
+                            "Event: %s\n" +
+                            "Society: %s\n" +
+                            "Time: %s - %s\n" +
+                            "Place: %s\n" +
+                            "Applicant: %s (%s)\n\n" +
+                            "This is an automated message.",
+                    admin.getName(),
+                    event.getEventName(),
+                    event.getSocietyName(),
+                    event.getTimeFrom(),
+                    event.getTimeTo(),
+                    event.getPlace(),
+                    event.getApplicantName(),
+                    event.getApplicantMobile()
+            ));
+            mailSender.send(message);
+        }
+    }
+
+    @Async
+    public void sendEventApprovalReminder(EventPermission event, AdminUser.Role role) {
+        List<AdminUser> approvers = adminUserRepository.findByRole(role);
+
+        for (AdminUser approver : approvers) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(approver.getEmail());
+            message.setSubject("Reminder: Event Permission Request Awaiting Your Review");
+            message.setText(String.format(
+                    "Dear %s,\n\n" +
+                            "The following event permission request is still awaiting your review.\n\n" +
+                            "Event: %s\n" +
+                            "Society: %s\n" +
+                            "Date: %s\n" +
+                            "Submitted: %s\n\n" +
+                            "Please log in to the SMS Admin Panel to review: %s\n\n" +
+                            "Best regards,\n" +
+                            "SMS System",
+                    approver.getName(),
+                    event.getEventName(),
+                    event.getSocietyName(),
+                    event.getEventDate(),
+                    event.getSubmittedDate() != null ? event.getSubmittedDate().toLocalDate() : "",
+                    frontendUrl
+            ));
+            mailSender.send(message);
+        }
+    }
+
     // ==========================================
     // GENERAL NOTIFICATIONS
     // ==========================================
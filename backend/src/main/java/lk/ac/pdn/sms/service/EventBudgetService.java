@@ -0,0 +1,151 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.exception.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Budget figures of event permissions. New requests have their budget and student fee
+ * parsed on submission; older rows are backfilled once at startup. The analytics query
+ * groups by society, faculty or month in SQL, reading only the covering
+ * {@code idx_event_permissions_budget} index (plus the societies table for faculty).
+ * A society's faculty is the applicant faculty of its approved registration; societies
+ * with none on record are reported under "Unknown".
+ */
+@Service
+public class EventBudgetService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventBudgetService.class);
+
+    private static final int BACKFILL_BATCH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EventBudgetService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Rows written before the numeric columns existed; unparseable text stays null
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long lastId = 0;
+        int updated = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id, budget_estimate, student_fee_amount FROM event_permissions " +
+                            "WHERE id > ? AND budget_estimate_value IS NULL AND student_fee_value IS NULL " +
+                            "AND (budget_estimate IS NOT NULL OR student_fee_amount IS NOT NULL) ORDER BY id LIMIT ?",
+                    (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3)},
+                    lastId, BACKFILL_BATCH);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> batch = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                BigDecimal budget = Amounts.parse((String) row[1]);
+                BigDecimal fee = Amounts.parse((String) row[2]);
+                if (budget != null || fee != null) {
+                    batch.add(new Object[]{budget, fee, row[0]});
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "UPDATE event_permissions SET budget_estimate_value = ?, student_fee_value = ? WHERE id = ?", batch);
+                updated += batch.size();
+            }
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        if (updated > 0) {
+            log.info("Backfilled budget amounts for {} events", updated);
+        }
+    }
+
+    /**
+     * Event count and budget totals per group for events dated {@code from}..{@code to}
+     * (both optional) in the given status, largest total budget first.
+     */
+    public Map<String, Object> getAnalytics(String groupBy, LocalDate from, LocalDate to, String status) {
+        String group = groupBy == null ? "society" : groupBy.toLowerCase(Locale.ROOT);
+        String groupExpression = switch (group) {
+            case "society" -> "e.society_name";
+            case "faculty" -> "COALESCE(NULLIF(TRIM(s.primary_faculty), ''), 'Unknown')";
+            case "month" -> "DATE_FORMAT(e.event_date, '%Y-%m')";
+            default -> throw new BadRequestException("groupBy must be one of society, faculty, month");
+        };
+        String statusName = status == null || status.isBlank() ? "APPROVED" : status.toUpperCase(Locale.ROOT);
+        if (!List.of("PENDING_AR", "PENDING_VC", "APPROVED", "REJECTED").contains(statusName)) {
+            throw new BadRequestException("Invalid status: " + status);
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(groupExpression).append(" AS grp, ")
+                .append("COUNT(*), COUNT(e.budget_estimate_value), SUM(e.budget_estimate_value), ")
+                .append("AVG(e.budget_estimate_value), MAX(e.budget_estimate_value), SUM(e.student_fee_value) ")
+                .append("FROM event_permissions e ");
+        if (group.equals("faculty")) {
+            sql.append("LEFT JOIN societies s ON s.society_name = e.society_name ");
+        }
+        sql.append("WHERE e.status = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(statusName);
+        if (from != null) {
+            sql.append(" AND e.event_date >= ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND e.event_date <= ?");
+            args.add(Date.valueOf(to));
+        }
+        sql.append(" GROUP BY grp ORDER BY SUM(e.budget_estimate_value) DESC, grp");
+
+        List<Map<String, Object>> groups = jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("key", rs.getString(1));
+            row.put("events", rs.getLong(2));
+            row.put("eventsWithBudget", rs.getLong(3));
+            row.put("totalBudget", orZero(rs.getBigDecimal(4)));
+            BigDecimal average = rs.getBigDecimal(5);
+            row.put("averageBudget", average == null ? BigDecimal.ZERO : average.setScale(2, RoundingMode.HALF_UP));
+            row.put("maxBudget", orZero(rs.getBigDecimal(6)));
+            row.put("totalStudentFees", orZero(rs.getBigDecimal(7)));
+            return row;
+        }, args.toArray());
+
+        long events = 0;
+        BigDecimal totalBudget = BigDecimal.ZERO;
+        BigDecimal totalFees = BigDecimal.ZERO;
+        for (Map<String, Object> row : groups) {
+            events += (Long) row.get("events");
+            totalBudget = totalBudget.add((BigDecimal) row.get("totalBudget"));
+            totalFees = totalFees.add((BigDecimal) row.get("totalStudentFees"));
+        }
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("events", events);
+        totals.put("totalBudget", totalBudget);
+        totals.put("totalStudentFees", totalFees);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("groupBy", group);
+        result.put("status", statusName);
+        result.put("from", from);
+        result.put("to", to);
+        result.put("groups", groups);
+        result.put("totals", totals);
+        return result;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+}
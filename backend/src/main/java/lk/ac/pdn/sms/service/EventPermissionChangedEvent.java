@@ -0,0 +1,10 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.entity.EventPermission;
+
+/**
+ * Published whenever an event permission is created or changes status.
+ * {@code previousStatus} is null for a new request.
+ */
+public record EventPermissionChangedEvent(EventPermission event, EventPermission.EventStatus previousStatus) {
+}
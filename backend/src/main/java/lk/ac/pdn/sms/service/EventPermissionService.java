@@ -1,27 +1,56 @@
 package lk.ac.pdn.sms.service;
 
 import lk.ac.pdn.sms.dto.EventPermissionDto;
+import lk.ac.pdn.sms.dto.EventSearchFilter;
+import lk.ac.pdn.sms.dto.KeysetCursor;
 import lk.ac.pdn.sms.entity.EventPermission;
+import lk.ac.pdn.sms.exception.BadRequestException;
 import lk.ac.pdn.sms.repository.EventPermissionRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime; // Make sure this is imported
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class EventPermissionService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final EventPermissionRepository eventPermissionRepository;
     private final ActivityLogService activityLogService;
-
-    public EventPermissionService(EventPermissionRepository eventPermissionRepository, ActivityLogService activityLogService) {
+    private final PDFService pdfService;
+    private final PdfCacheService pdfCacheService;
+    private final VenueBookingIndex venueBookingIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    public EventPermissionService(EventPermissionRepository eventPermissionRepository, ActivityLogService activityLogService,
+                                  PDFService pdfService, PdfCacheService pdfCacheService,
+                                  VenueBookingIndex venueBookingIndex, ApplicationEventPublisher eventPublisher,
+                                  JdbcTemplate jdbcTemplate) {
         this.eventPermissionRepository = eventPermissionRepository;
         this.activityLogService = activityLogService;
+        this.pdfService = pdfService;
+        this.pdfCacheService = pdfCacheService;
+        this.venueBookingIndex = venueBookingIndex;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     public EventPermission requestPermission(EventPermissionDto dto) {
@@ -58,6 +87,8 @@ public class EventPermissionService {
         event.setBudgetEstimate(dto.getBudgetEstimate());
         event.setFundCollectionMethods(dto.getFundCollectionMethods());
         event.setStudentFeeAmount(dto.getStudentFeeAmount());
+        event.setBudgetEstimateValue(Amounts.parse(dto.getBudgetEstimate()));
+        event.setStudentFeeValue(Amounts.parse(dto.getStudentFeeAmount()));
 
         event.setSeniorTreasurerName(dto.getSeniorTreasurerName());
         event.setSeniorTreasurerDepartment(dto.getSeniorTreasurerDepartment());
@@ -78,7 +109,10 @@ public class EventPermissionService {
         // --- FIX: Changed LocalDate.now() to LocalDateTime.now() ---
         event.setSubmittedDate(LocalDateTime.now());
 
+        venueBookingIndex.checkNoApprovedConflict(event);
+
         EventPermission savedEvent = eventPermissionRepository.save(event);
+        eventPublisher.publishEvent(new EventPermissionChangedEvent(savedEvent, null));
 
         // Log Activity
         activityLogService.logActivity(
@@ -96,6 +130,34 @@ public class EventPermissionService {
                 .orElseThrow(() -> new RuntimeException("Event not found"));
     }
 
+    public Path generateEventPermissionPDF(Long id) throws IOException {
+        EventPermission event = getEventById(id);
+        return pdfCacheService.getOrRender(PdfCacheService.EVENT, id, event.getUpdatedAt(),
+                () -> pdfService.generateEventPermissionPDF(event));
+    }
+
+    public Map<String, Object> checkSlot(String place, LocalDate date, LocalTime from, LocalTime to) {
+        List<VenueBookingIndex.Slot> bookings = venueBookingIndex.findOverlapping(place, date, from, to, null);
+        Map<String, Object> result = new HashMap<>();
+        result.put("available", bookings.stream().noneMatch(b -> b.status() == EventPermission.EventStatus.APPROVED));
+        result.put("bookings", bookings);
+        return result;
+    }
+
+    // Other pending or approved requests for the same venue and time, for the approval view
+    @Transactional(readOnly = true)
+    public List<EventPermission> getConflictingEvents(Long id) {
+        EventPermission event = getEventById(id);
+        if (event.getPlace() == null || event.getEventDate() == null) {
+            return List.of();
+        }
+        List<Long> ids = venueBookingIndex.findOverlapping(event.getPlace(), event.getEventDate(),
+                        event.getTimeFrom(), event.getTimeTo(), event.getId()).stream()
+                .map(VenueBookingIndex.Slot::eventId)
+                .collect(Collectors.toList());
+        return eventPermissionRepository.findAllById(ids);
+    }
+
     public Page<EventPermission> getAllEvents(String status, Pageable pageable) {
         if (status != null && !status.isEmpty()) {
             try {
@@ -108,4 +170,78 @@ public class EventPermissionService {
         }
         return eventPermissionRepository.findAll(pageable);
     }
-}
\ No newline at end of file
+
+    /**
+     * One page of events matching the filter, latest event date first, keyset-paginated on
+     * (event_date, id). The ids are found from the (status|place|society, event_date) indexes
+     * and only the rows on the page are loaded, so deep pages cost the same as the first.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> searchEvents(EventSearchFilter filter, String cursorToken, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(cursorToken);
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        StringBuilder sql = new StringBuilder("SELECT id FROM event_permissions WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (filter.getStatus() != null && !filter.getStatus().isBlank()) {
+            try {
+                args.add(EventPermission.EventStatus.valueOf(filter.getStatus().trim().toUpperCase()).name());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid status: " + filter.getStatus());
+            }
+            sql.append(" AND status = ?");
+        }
+        if (filter.getPlace() != null && !filter.getPlace().isBlank()) {
+            sql.append(" AND place = ?");
+            args.add(filter.getPlace().trim());
+        }
+        if (filter.getSociety() != null && !filter.getSociety().isBlank()) {
+            sql.append(" AND society_name = ?");
+            args.add(filter.getSociety().trim());
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND event_date >= ?");
+            args.add(filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND event_date <= ?");
+            args.add(filter.getTo());
+        }
+        // MySQL sorts NULL last under DESC, so undated events form a trailing section keyed by id alone
+        if (cursor != null && cursor.sortKey() == null) {
+            sql.append(" AND event_date IS NULL AND id < ?");
+            args.add(cursor.id());
+        } else if (cursor != null) {
+            LocalDate after;
+            try {
+                after = LocalDate.parse(cursor.sortKey());
+            } catch (DateTimeParseException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            sql.append(" AND (event_date < ? OR (event_date = ? AND id < ?) OR event_date IS NULL)");
+            args.add(after);
+            args.add(after);
+            args.add(cursor.id());
+        }
+        sql.append(" ORDER BY event_date DESC, id DESC LIMIT ?");
+        // One extra row tells us whether another page exists
+        args.add(limit + 1);
+        List<Long> ids = jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+
+        boolean hasMore = ids.size() > limit;
+        if (hasMore) {
+            ids = ids.subList(0, limit);
+        }
+        Map<Long, EventPermission> byId = eventPermissionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(EventPermission::getId, event -> event));
+        List<EventPermission> items = ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+        EventPermission last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", items);
+        page.put("size", items.size());
+        page.put("hasMore", hasMore);
+        page.put("nextCursor", hasMore && last != null ? KeysetCursor.of(last.getEventDate(), last.getId()).encode() : null);
+        return page;
+    }
+}
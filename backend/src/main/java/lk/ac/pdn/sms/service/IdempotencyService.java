@@ -0,0 +1,125 @@
+package lk.ac.pdn.sms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lk.ac.pdn.sms.exception.BadRequestException;
+import lk.ac.pdn.sms.exception.IdempotencyKeyReuseException;
+import lk.ac.pdn.sms.exception.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived store for the {@code Idempotency-Key} header on submission endpoints.
+ * The first request with a key runs the write path and its result is kept for the TTL;
+ * retries with the same key and payload get that result back without touching the
+ * database or sending emails again. Retries that arrive while the first request is still
+ * running wait for it. Reusing a key with a different payload is rejected (422).
+ * Failed requests are not remembered, so the client can retry them with the same key.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    private static final class Entry {
+        private final byte[] payloadHash;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(byte[] payloadHash) {
+            this.payloadHash = payloadHash;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${app.idempotency.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${app.idempotency.wait-seconds:30}")
+    private long waitSeconds;
+
+    public IdempotencyService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Runs {@code action} once per (scope, key). Without a key the action simply runs.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String scope, String key, Object payload, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String storeKey = scope + ":" + key;
+        Entry created = new Entry(hash(payload));
+        Entry existing = entries.putIfAbsent(storeKey, created);
+
+        if (existing != null) {
+            if (!Arrays.equals(existing.payloadHash, created.payloadHash)) {
+                throw new IdempotencyKeyReuseException(HEADER + " was already used for a different request");
+            }
+            return new Result<>((T) await(existing), true);
+        }
+
+        try {
+            T value = action.get();
+            created.expiresAt = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(ttlMinutes);
+            created.result.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException e) {
+            entries.remove(storeKey, created);
+            created.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt < now);
+    }
+
+    private Object await(Entry entry) {
+        try {
+            return entry.result.get(waitSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for the original request");
+        } catch (TimeoutException e) {
+            throw new ServiceBusyException("The original request with this " + HEADER + " is still being processed");
+        } catch (ExecutionException e) {
+            // The original attempt failed; report the same failure
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private byte[] hash(Object payload) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(payload));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request payload", e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package lk.ac.pdn.sms.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Augmented AVL tree of half-open intervals {@code [start, end)} keyed by (start, id).
+ * Each node keeps the largest end in its subtree, so an overlap query skips any subtree
+ * that ends before the query starts: O(log n + k) for k results. Not thread-safe.
+ */
+final class IntervalTree<T> {
+
+    record Interval<T>(int start, int end, long id, T value) {
+    }
+
+    private static final class Node<T> {
+        final Interval<T> interval;
+        Node<T> left;
+        Node<T> right;
+        int height = 1;
+        int maxEnd;
+
+        Node(Interval<T> interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end();
+        }
+    }
+
+    private Node<T> root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void insert(int start, int end, long id, T value) {
+        root = insert(root, new Interval<>(start, end, id, value));
+        size++;
+    }
+
+    void remove(int start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        if (size == before) {
+            throw new IllegalStateException("Interval " + id + " not in tree");
+        }
+    }
+
+    List<Interval<T>> overlapping(int start, int end) {
+        List<Interval<T>> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    List<Interval<T>> all() {
+        return overlapping(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    private void collect(Node<T> node, int start, int end, List<Interval<T>> result) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, result);
+        Interval<T> interval = node.interval;
+        if (interval.start() < end && start < interval.end()) {
+            result.add(interval);
+        }
+        // Everything to the right starts at or after this node
+        if (interval.start() < end) {
+            collect(node.right, start, end, result);
+        }
+    }
+
+    private static <T> int compare(int start, long id, Interval<T> interval) {
+        int c = Integer.compare(start, interval.start());
+        return c != 0 ? c : Long.compare(id, interval.id());
+    }
+
+    private Node<T> insert(Node<T> node, Interval<T> interval) {
+        if (node == null) {
+            return new Node<>(interval);
+        }
+        if (compare(interval.start(), interval.id(), node.interval) < 0) {
+            node.left = insert(node.left, interval);
+        } else {
+            node.right = insert(node.right, interval);
+        }
+        return balance(node);
+    }
+
+    private Node<T> remove(Node<T> node, int start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, id, node.interval);
+        if (c < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (c > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node<T> replacement = new Node<>(successor.interval);
+            replacement.right = removeMin(node.right);
+            replacement.left = node.left;
+            node = replacement;
+        }
+        return balance(node);
+    }
+
+    private Node<T> removeMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static <T> int height(Node<T> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static <T> void update(Node<T> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        int maxEnd = node.interval.end();
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static <T> Node<T> balance(Node<T> node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
@@ -0,0 +1,188 @@
+package lk.ac.pdn.sms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lk.ac.pdn.sms.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON Merge Patch (RFC 7386) and JSON Patch (RFC 6902) over Jackson trees.
+ * Both return a new document; the input is not modified. Malformed patches and
+ * failed {@code test} operations are reported as {@link BadRequestException}.
+ */
+final class JsonPatches {
+
+    private JsonPatches() {
+    }
+
+    static JsonNode mergePatch(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch.deepCopy();
+        }
+        ObjectNode result = target != null && target.isObject()
+                ? ((ObjectNode) target).deepCopy()
+                : ((ObjectNode) patch).objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), mergePatch(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+
+    static JsonNode apply(JsonNode document, JsonNode operations) {
+        if (!operations.isArray()) {
+            throw new BadRequestException("JSON Patch must be an array of operations");
+        }
+        JsonNode doc = document.deepCopy();
+        for (JsonNode op : operations) {
+            String path = requiredText(op, "path");
+            switch (requiredText(op, "op")) {
+                case "add":
+                    doc = add(doc, path, required(op, "value").deepCopy());
+                    break;
+                case "remove":
+                    doc = remove(doc, path);
+                    break;
+                case "replace":
+                    if (path.isEmpty()) {
+                        doc = required(op, "value").deepCopy();
+                    } else {
+                        get(doc, path);
+                        doc = add(remove(doc, path), path, required(op, "value").deepCopy());
+                    }
+                    break;
+                case "move": {
+                    String from = requiredText(op, "from");
+                    if (path.startsWith(from + "/")) {
+                        throw new BadRequestException("Cannot move '" + from + "' into its own child");
+                    }
+                    JsonNode value = get(doc, from);
+                    doc = add(remove(doc, from), path, value);
+                    break;
+                }
+                case "copy":
+                    doc = add(doc, path, get(doc, requiredText(op, "from")).deepCopy());
+                    break;
+                case "test":
+                    if (!get(doc, path).equals(required(op, "value"))) {
+                        throw new BadRequestException("Test failed at '" + path + "'");
+                    }
+                    break;
+                default:
+                    throw new BadRequestException("Unknown JSON Patch operation: " + op.get("op").asText());
+            }
+        }
+        return doc;
+    }
+
+    private static JsonNode add(JsonNode doc, String path, JsonNode value) {
+        List<String> tokens = parse(path);
+        if (tokens.isEmpty()) {
+            return value;
+        }
+        JsonNode parent = resolve(doc, tokens.subList(0, tokens.size() - 1), path);
+        String last = tokens.get(tokens.size() - 1);
+        if (parent.isObject()) {
+            ((ObjectNode) parent).set(last, value);
+        } else if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            if ("-".equals(last)) {
+                array.add(value);
+            } else {
+                array.insert(index(last, array.size() + 1, path), value);
+            }
+        } else {
+            throw new BadRequestException("Cannot add to a scalar at '" + path + "'");
+        }
+        return doc;
+    }
+
+    private static JsonNode remove(JsonNode doc, String path) {
+        List<String> tokens = parse(path);
+        if (tokens.isEmpty()) {
+            throw new BadRequestException("Cannot remove the whole document");
+        }
+        JsonNode parent = resolve(doc, tokens.subList(0, tokens.size() - 1), path);
+        String last = tokens.get(tokens.size() - 1);
+        if (parent.isObject() && parent.has(last)) {
+            ((ObjectNode) parent).remove(last);
+        } else if (parent.isArray()) {
+            ((ArrayNode) parent).remove(index(last, parent.size(), path));
+        } else {
+            throw new BadRequestException("No value at '" + path + "'");
+        }
+        return doc;
+    }
+
+    private static JsonNode get(JsonNode doc, String path) {
+        return resolve(doc, parse(path), path);
+    }
+
+    private static JsonNode resolve(JsonNode doc, List<String> tokens, String path) {
+        JsonNode node = doc;
+        for (String token : tokens) {
+            JsonNode next = null;
+            if (node.isObject()) {
+                next = node.get(token);
+            } else if (node.isArray()) {
+                next = node.get(index(token, node.size(), path));
+            }
+            if (next == null) {
+                throw new BadRequestException("No value at '" + path + "'");
+            }
+            node = next;
+        }
+        return node;
+    }
+
+    private static int index(String token, int limit, String path) {
+        if (!token.matches("0|[1-9][0-9]{0,8}")) {
+            throw new BadRequestException("Invalid array index in '" + path + "'");
+        }
+        int index = Integer.parseInt(token);
+        if (index >= limit) {
+            throw new BadRequestException("Array index out of range in '" + path + "'");
+        }
+        return index;
+    }
+
+    private static List<String> parse(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return tokens;
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new BadRequestException("Invalid JSON pointer: " + pointer);
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static JsonNode required(JsonNode op, String member) {
+        JsonNode value = op.get(member);
+        if (value == null) {
+            throw new BadRequestException("JSON Patch operation is missing '" + member + "'");
+        }
+        return value;
+    }
+
+    private static String requiredText(JsonNode op, String member) {
+        JsonNode value = required(op, member);
+        if (!value.isTextual()) {
+            throw new BadRequestException("JSON Patch '" + member + "' must be a string");
+        }
+        return value.asText();
+    }
+}
@@ -0,0 +1,267 @@
+package lk.ac.pdn.sms.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lk.ac.pdn.sms.entity.RenewalSocietyMember;
+import lk.ac.pdn.sms.entity.SocietyMember;
+import lk.ac.pdn.sms.entity.SocietyRegistration;
+import lk.ac.pdn.sms.entity.SocietyRenewal;
+import lk.ac.pdn.sms.exception.BadRequestException;
+import lk.ac.pdn.sms.exception.ForbiddenException;
+import lk.ac.pdn.sms.exception.ResourceNotFoundException;
+import lk.ac.pdn.sms.repository.SocietyRegistrationRepository;
+import lk.ac.pdn.sms.repository.SocietyRenewalRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Imports a society's member list from CSV ("reg no,name" per line, optional header row).
+ * The upload is read line by line and members are persisted in batches, each in its own
+ * transaction, so neither the file nor the member list is ever held in memory whole.
+ * Invalid or duplicate rows are skipped and reported; the report is capped.
+ * Members can only be added while the application is still waiting for the Dean, and
+ * only with the upload token issued to the applicant when the application was submitted.
+ */
+@Service
+public class MemberImportService {
+
+    public static final String UPLOAD_TOKEN_HEADER = "X-Upload-Token";
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final SocietyRegistrationRepository registrationRepository;
+    private final SocietyRenewalRepository renewalRepository;
+    private final EmailValidationService emailValidationService;
+    private final ActivityLogService activityLogService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.member-import.batch-size:200}")
+    private int batchSize;
+
+    public MemberImportService(SocietyRegistrationRepository registrationRepository,
+                               SocietyRenewalRepository renewalRepository,
+                               EmailValidationService emailValidationService,
+                               ActivityLogService activityLogService,
+                               PlatformTransactionManager transactionManager) {
+        this.registrationRepository = registrationRepository;
+        this.renewalRepository = renewalRepository;
+        this.emailValidationService = emailValidationService;
+        this.activityLogService = activityLogService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record MemberRow(String regNo, String name) {
+    }
+
+    public Map<String, Object> importRegistrationMembers(Long registrationId, String applicantRegNo, String uploadToken,
+                                                         InputStream csv) throws IOException {
+        SocietyRegistration registration = registrationRepository.findById(registrationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Registration not found with id: " + registrationId));
+        checkUploadToken(registration.getUploadTokenHash(), uploadToken);
+        checkApplicant(registration.getApplicantRegNo(), applicantRegNo);
+        if (registration.getStatus() != SocietyRegistration.ApprovalStage.PENDING_DEAN) {
+            throw new BadRequestException("Members can only be imported before Dean approval");
+        }
+
+        Set<String> existing = normalise(entityManager.createQuery(
+                        "SELECT m.regNo FROM SocietyMember m WHERE m.registration.id = :id", String.class)
+                .setParameter("id", registrationId)
+                .getResultList());
+
+        Map<String, Object> report = importRows(csv, existing, batch -> {
+            SocietyRegistration ref = entityManager.getReference(SocietyRegistration.class, registrationId);
+            for (MemberRow row : batch) {
+                SocietyMember member = new SocietyMember();
+                member.setRegistration(ref);
+                member.setRegNo(row.regNo());
+                member.setName(row.name());
+                entityManager.persist(member);
+            }
+            touch(SocietyRegistration.class, registrationId);
+        });
+        activityLogService.logActivity("Members Imported", registration.getSocietyName(), registration.getApplicantFullName());
+        return report;
+    }
+
+    public Map<String, Object> importRenewalMembers(Long renewalId, String applicantRegNo, String uploadToken,
+                                                    InputStream csv) throws IOException {
+        SocietyRenewal renewal = renewalRepository.findById(renewalId)
+                .orElseThrow(() -> new ResourceNotFoundException("Renewal not found with id: " + renewalId));
+        checkUploadToken(renewal.getUploadTokenHash(), uploadToken);
+        checkApplicant(renewal.getApplicantRegNo(), applicantRegNo);
+        if (renewal.getStatus() != SocietyRenewal.RenewalStatus.PENDING_DEAN) {
+            throw new BadRequestException("Members can only be imported before Dean approval");
+        }
+
+        Set<String> existing = normalise(entityManager.createQuery(
+                        "SELECT m.regNo FROM RenewalSocietyMember m WHERE m.renewal.id = :id", String.class)
+                .setParameter("id", renewalId)
+                .getResultList());
+
+        Map<String, Object> report = importRows(csv, existing, batch -> {
+            SocietyRenewal ref = entityManager.getReference(SocietyRenewal.class, renewalId);
+            for (MemberRow row : batch) {
+                RenewalSocietyMember member = new RenewalSocietyMember();
+                member.setRenewal(ref);
+                member.setRegNo(row.regNo());
+                member.setName(row.name());
+                entityManager.persist(member);
+            }
+            touch(SocietyRenewal.class, renewalId);
+        });
+        activityLogService.logActivity("Members Imported", renewal.getSocietyName(), renewal.getApplicantFullName());
+        return report;
+    }
+
+    private Map<String, Object> importRows(InputStream csv, Set<String> existingRegNos,
+                                           Consumer<List<MemberRow>> persister) throws IOException {
+        List<Map<String, Object>> errors = new ArrayList<>();
+        List<MemberRow> batch = new ArrayList<>(batchSize);
+        int lineNumber = 0;
+        int imported = 0;
+        int rejected = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (lineNumber == 1 && line.charAt(0) == '\uFEFF') {
+                    line = line.substring(1);
+                }
+                List<String> fields = parseLine(line);
+                if (lineNumber == 1 && isHeader(fields)) {
+                    continue;
+                }
+
+                String error = null;
+                String regNo = fields.size() > 0 ? fields.get(0).trim() : "";
+                String name = fields.size() > 1 ? fields.get(1).trim() : "";
+                if (fields.size() < 2) {
+                    error = "Expected 2 columns (reg no, name)";
+                } else if (!emailValidationService.isValidRegistrationNumber(regNo)) {
+                    error = "Invalid registration number: " + regNo;
+                } else if (name.isEmpty()) {
+                    error = "Member name is required";
+                } else if (!existingRegNos.add(regNo.toUpperCase(Locale.ROOT))) {
+                    error = "Duplicate member: " + regNo;
+                }
+
+                if (error != null) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        Map<String, Object> e = new HashMap<>();
+                        e.put("line", lineNumber);
+                        e.put("error", error);
+                        errors.add(e);
+                    }
+                    continue;
+                }
+
+                batch.add(new MemberRow(regNo, name));
+                if (batch.size() == batchSize) {
+                    imported += flush(batch, persister);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += flush(batch, persister);
+        }
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("linesRead", lineNumber);
+        report.put("imported", imported);
+        report.put("rejected", rejected);
+        report.put("errors", errors);
+        report.put("errorsTruncated", rejected > errors.size());
+        return report;
+    }
+
+    private int flush(List<MemberRow> batch, Consumer<List<MemberRow>> persister) {
+        int size = batch.size();
+        transactionTemplate.executeWithoutResult(status -> {
+            persister.accept(batch);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        batch.clear();
+        return size;
+    }
+
+    // The PDF cache keys on the parent's updatedAt, so member changes must move it too
+    private void touch(Class<?> parent, Long id) {
+        entityManager.createQuery("UPDATE " + parent.getSimpleName() + " p SET p.updatedAt = :now WHERE p.id = :id")
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    private void checkUploadToken(String storedHash, String uploadToken) {
+        if (!UploadTokens.matches(uploadToken, storedHash)) {
+            throw new ForbiddenException("A valid upload token for this application is required");
+        }
+    }
+
+    private void checkApplicant(String expectedRegNo, String applicantRegNo) {
+        if (applicantRegNo == null || !applicantRegNo.trim().equalsIgnoreCase(expectedRegNo)) {
+            throw new BadRequestException("Applicant registration number does not match the application");
+        }
+    }
+
+    private static Set<String> normalise(List<String> regNos) {
+        Set<String> set = new HashSet<>();
+        for (String regNo : regNos) {
+            set.add(regNo.toUpperCase(Locale.ROOT));
+        }
+        return set;
+    }
+
+    private static boolean isHeader(List<String> fields) {
+        return !fields.isEmpty() && fields.get(0).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "").startsWith("reg");
+    }
+
+    // Minimal RFC 4180 parsing: commas, quoted fields and doubled quotes
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -1,31 +1,115 @@
 package lk.ac.pdn.sms.service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lk.ac.pdn.sms.entity.SocietyRegistration;
 import lk.ac.pdn.sms.entity.SocietyRenewal;
 import lk.ac.pdn.sms.entity.EventPermission;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class PDFService {
 
+    @Value("${app.pdf-render.workers:0}")
+    private int workers;
+
+    @Value("${app.pdf-render.queue-capacity:200}")
+    private int queueCapacity;
+
+    // Kept private (not a bean) so @Async email dispatch keeps using the default executor
+    private ThreadPoolExecutor renderPool;
+
+    private final LongAdder renderCount = new LongAdder();
+    private final LongAdder renderNanos = new LongAdder();
+    private final AtomicLong maxRenderNanos = new AtomicLong();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    @PostConstruct
+    void startRenderPool() {
+        int threads = workers > 0 ? workers : Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicInteger counter = new AtomicInteger();
+        renderPool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "pdf-render-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stopRenderPool() {
+        renderPool.shutdown();
+    }
+
+    /**
+     * Runs a render task on the bounded render pool.
+     * Throws RejectedExecutionException when the queue is full so callers can apply backpressure.
+     */
+    public <T> CompletableFuture<T> submitRender(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            renderPool.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw e;
+        }
+        return future;
+    }
+
+    public int getRenderWorkers() {
+        return renderPool.getMaximumPoolSize();
+    }
+
+    public Map<String, Object> getRenderMetrics() {
+        long renders = renderCount.sum();
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("workers", renderPool.getMaximumPoolSize());
+        metrics.put("activeWorkers", renderPool.getActiveCount());
+        metrics.put("queueDepth", renderPool.getQueue().size());
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("rejectedTasks", rejectedCount.sum());
+        metrics.put("renders", renders);
+        metrics.put("averageRenderMs", renders == 0 ? 0.0 : renderNanos.sum() / 1_000_000.0 / renders);
+        metrics.put("maxRenderMs", maxRenderNanos.get() / 1_000_000.0);
+        return metrics;
+    }
+
     public byte[] generateRegistrationPDF(SocietyRegistration registration) throws IOException {
+        long started = System.nanoTime();
         String pdfContent = String.format(
                 "UNIVERSITY OF PERADENIYA\nSOCIETY REGISTRATION\n%s",
                 registration.getSocietyName());
-        return pdfContent.getBytes(StandardCharsets.UTF_8);
+        return recordRender(started, pdfContent.getBytes(StandardCharsets.UTF_8));
     }
 
     public byte[] generateRenewalPDF(SocietyRenewal renewal) throws IOException {
+        long started = System.nanoTime();
         String pdfContent = String.format(
                 "UNIVERSITY OF PERADENIYA\nSOCIETY RENEWAL\n%s",
                 renewal.getSocietyName());
-        return pdfContent.getBytes(StandardCharsets.UTF_8);
+        return recordRender(started, pdfContent.getBytes(StandardCharsets.UTF_8));
     }
 
     public byte[] generateEventPermissionPDF(EventPermission event) throws IOException {
+        long started = System.nanoTime();
         String pdfContent = String.format(
                 "UNIVERSITY OF PERADENIYA\nEVENT PERMISSION\n" +
                         "Event: %s\nSociety: %s\nApplicant: %s\nDate: %s\nTime: %s - %s\nPlace: %s",
@@ -38,6 +122,14 @@ public class PDFService {
                 event.getPlace()
         );
 
-        return pdfContent.getBytes(StandardCharsets.UTF_8);
+        return recordRender(started, pdfContent.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] recordRender(long startedNanos, byte[] pdf) {
+        long elapsed = System.nanoTime() - startedNanos;
+        renderCount.increment();
+        renderNanos.add(elapsed);
+        maxRenderNanos.accumulateAndGet(elapsed, Math::max);
+        return pdf;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,321 @@
+package lk.ac.pdn.sms.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache for generated application PDFs.
+ * Files are named after a hash of (document type, id, last update time), so an
+ * entity that has not changed is always served from disk and a changed entity
+ * simply gets a new file. The cache is bounded by total size and evicts the
+ * least recently used files first. Evicted and superseded files are only deleted
+ * from disk once no reader holds them (see {@link #acquire}) and a grace period has
+ * passed, which also covers sendfile transfers Tomcat completes after
+ * {@link #serve} returns and callers that have a path from {@link #getOrRender}
+ * but have not opened it yet.
+ */
+@Service
+public class PdfCacheService {
+
+    public static final String REGISTRATION = "registration";
+    public static final String RENEWAL = "renewal";
+    public static final String EVENT = "event";
+
+    private static final Logger log = LoggerFactory.getLogger(PdfCacheService.class);
+
+    // Tomcat request attributes used to hand a file to the connector's sendfile support
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @FunctionalInterface
+    public interface PdfRenderer {
+        byte[] render() throws IOException;
+    }
+
+    @Value("${app.file-upload-dir:./uploads}")
+    private String fileUploadDir;
+
+    @Value("${app.pdf-cache.max-size-mb:512}")
+    private long maxSizeMb;
+
+    @Value("${app.pdf-cache.delete-grace-seconds:300}")
+    private long deleteGraceSeconds;
+
+    private Path cacheDir;
+    private long totalBytes;
+
+    // Access-ordered: iteration starts at the least recently used file
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // "type:id" -> file name of the newest cached version
+    private final Map<String, String> currentVersion = new HashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    // File name -> open readers, and file name -> earliest time (epoch millis) it may be deleted
+    private final Map<String, Integer> readers = new HashMap<>();
+    private final Map<String, Long> pendingDeletes = new HashMap<>();
+
+    @PostConstruct
+    void init() throws IOException {
+        cacheDir = Paths.get(fileUploadDir, "pdf-cache").toAbsolutePath().normalize();
+        Files.createDirectories(cacheDir);
+
+        // Re-register files left from a previous run, oldest first so LRU order is preserved
+        List<Path> existing;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            existing = files.filter(p -> p.getFileName().toString().endsWith(".pdf"))
+                    .sorted(Comparator.comparingLong(this::lastModified))
+                    .toList();
+        }
+        synchronized (this) {
+            for (Path file : existing) {
+                String name = file.getFileName().toString();
+                long size = Files.size(file);
+                entries.put(name, size);
+                totalBytes += size;
+                currentVersion.put(documentKey(name), name);
+            }
+            evictIfNeeded(null);
+        }
+        log.info("PDF cache at {} holds {} files ({} bytes)", cacheDir, entries.size(), totalBytes);
+    }
+
+    /**
+     * Returns the cached PDF for the given document version, rendering and storing it on a miss.
+     * Concurrent requests for the same version share a single render.
+     */
+    public Path getOrRender(String documentType, Long id, LocalDateTime version, PdfRenderer renderer) throws IOException {
+        String fileName = fileName(documentType, id, version);
+
+        synchronized (this) {
+            if (entries.get(fileName) != null) {
+                Path cached = cacheDir.resolve(fileName);
+                if (Files.exists(cached)) {
+                    return cached;
+                }
+                totalBytes -= entries.remove(fileName);
+            }
+        }
+
+        CompletableFuture<Path> pending = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(fileName, pending);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            Path stored = store(fileName, renderer.render());
+            pending.complete(stored);
+            return stored;
+        } catch (IOException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(fileName);
+        }
+    }
+
+    /**
+     * Marks a cached file as being read; it is not deleted until the returned handle is closed.
+     */
+    public Closeable acquire(Path file) {
+        String fileName = file.getFileName().toString();
+        synchronized (this) {
+            readers.merge(fileName, 1, Integer::sum);
+        }
+        return () -> release(fileName);
+    }
+
+    /**
+     * Writes a cached PDF to the response. When the connector supports sendfile the
+     * transfer is handed to Tomcat, otherwise the file channel is copied directly.
+     */
+    public void serve(Path file, String downloadName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size = Files.size(file);
+        response.setContentType("application/pdf");
+        response.setHeader("Content-Disposition", "attachment; filename=" + downloadName);
+        response.setContentLengthLong(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat opens the file after this returns, so a pending delete waits out a fresh grace period
+            synchronized (this) {
+                pendingDeletes.computeIfPresent(file.getFileName().toString(), (name, notBefore) -> graceDeadline());
+            }
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+
+        Closeable lease = acquire(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        } finally {
+            lease.close();
+        }
+    }
+
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("files", entries.size());
+        stats.put("totalBytes", totalBytes);
+        stats.put("maxBytes", maxSizeMb * 1024 * 1024);
+        stats.put("pendingDeletes", pendingDeletes.size());
+        return stats;
+    }
+
+    private Path store(String fileName, byte[] content) throws IOException {
+        Path target = cacheDir.resolve(fileName);
+        // Re-rendering a retired name: the sweep must not delete the file about to be moved into place
+        synchronized (this) {
+            pendingDeletes.remove(fileName);
+        }
+        Path temp = Files.createTempFile(cacheDir, "render-", ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        synchronized (this) {
+            Long previousSize = entries.put(fileName, (long) content.length);
+            totalBytes += content.length - (previousSize != null ? previousSize : 0L);
+
+            // A newer version of the same document makes the older file unreachable
+            String stale = currentVersion.put(documentKey(fileName), fileName);
+            if (stale != null && !stale.equals(fileName)) {
+                remove(stale);
+            }
+            evictIfNeeded(fileName);
+        }
+        return target;
+    }
+
+    private void evictIfNeeded(String keep) {
+        long maxBytes = maxSizeMb * 1024 * 1024;
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.getValue();
+            currentVersion.remove(documentKey(eldest.getKey()), eldest.getKey());
+            retire(eldest.getKey());
+        }
+    }
+
+    private void remove(String fileName) {
+        Long size = entries.remove(fileName);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        retire(fileName);
+    }
+
+    @Scheduled(fixedDelayString = "${app.pdf-cache.sweep-interval-ms:60000}")
+    public synchronized void deleteRetired() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Long>> it = pendingDeletes.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Long> pending = it.next();
+            if (pending.getValue() <= now && !readers.containsKey(pending.getKey())) {
+                it.remove();
+                deleteQuietly(pending.getKey());
+            }
+        }
+    }
+
+    private synchronized void release(String fileName) {
+        readers.computeIfPresent(fileName, (name, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void retire(String fileName) {
+        pendingDeletes.put(fileName, graceDeadline());
+    }
+
+    private long graceDeadline() {
+        return System.currentTimeMillis() + deleteGraceSeconds * 1000;
+    }
+
+    private void deleteQuietly(String fileName) {
+        try {
+            Files.deleteIfExists(cacheDir.resolve(fileName));
+        } catch (IOException e) {
+            log.warn("Could not delete cached PDF {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for PDF render", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("PDF render failed", e.getCause());
+        }
+    }
+
+    // File names look like "<type>-<id>-<hash>.pdf"
+    private static String documentKey(String fileName) {
+        int lastDash = fileName.lastIndexOf('-');
+        return lastDash > 0 ? fileName.substring(0, lastDash) : fileName;
+    }
+
+    private static String fileName(String documentType, Long id, LocalDateTime version) {
+        long versionMillis = version != null ? version.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        String key = documentType + "|" + id + "|" + versionMillis;
+        return documentType + "-" + id + "-" + sha256(key).substring(0, 20) + ".pdf";
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
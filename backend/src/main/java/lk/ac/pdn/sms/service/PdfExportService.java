@@ -0,0 +1,176 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.entity.SocietyRegistration;
+import lk.ac.pdn.sms.entity.SocietyRenewal;
+import lk.ac.pdn.sms.repository.SocietyRegistrationRepository;
+import lk.ac.pdn.sms.repository.SocietyRenewalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongFunction;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams approved application PDFs as a single ZIP.
+ * Ids are read a page at a time, documents are rendered on the PDF render pool and
+ * entries are written in id order. At most a fixed window of documents is in flight,
+ * and rendered files are streamed from the PDF cache, so memory use does not grow
+ * with the number of documents exported.
+ */
+@Service
+public class PdfExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfExportService.class);
+
+    private final SocietyRegistrationRepository registrationRepository;
+    private final SocietyRenewalRepository renewalRepository;
+    private final PDFService pdfService;
+    private final PdfCacheService pdfCacheService;
+
+    @Value("${app.pdf-export.page-size:200}")
+    private int pageSize;
+
+    public PdfExportService(SocietyRegistrationRepository registrationRepository,
+                            SocietyRenewalRepository renewalRepository,
+                            PDFService pdfService,
+                            PdfCacheService pdfCacheService) {
+        this.registrationRepository = registrationRepository;
+        this.renewalRepository = renewalRepository;
+        this.pdfService = pdfService;
+        this.pdfCacheService = pdfCacheService;
+    }
+
+    private record RenderedDocument(String entryName, Path file) {
+    }
+
+    @FunctionalInterface
+    private interface DocumentRenderer {
+        RenderedDocument render(Long id) throws IOException;
+    }
+
+    /**
+     * Writes the ZIP for the given filter to {@code out}.
+     * {@code type} is "registration", "renewal" or "all"; year and faculty are optional.
+     */
+    public void writeApprovedApplicationsZip(Integer year, String faculty, String type, OutputStream out) throws IOException {
+        String facultyFilter = (faculty == null || faculty.isBlank()) ? null : faculty;
+        boolean all = type == null || type.isBlank() || type.equalsIgnoreCase("all");
+        long started = System.currentTimeMillis();
+        int written = 0;
+
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            if (all || type.equalsIgnoreCase(PdfCacheService.REGISTRATION)) {
+                written += writeEntries(zip,
+                        afterId -> registrationRepository.findIdsForExport(SocietyRegistration.ApprovalStage.APPROVED,
+                                year, facultyFilter, afterId, PageRequest.of(0, pageSize)),
+                        this::renderRegistration);
+            }
+            if (all || type.equalsIgnoreCase(PdfCacheService.RENEWAL)) {
+                written += writeEntries(zip,
+                        afterId -> renewalRepository.findIdsForExport(SocietyRenewal.RenewalStatus.APPROVED,
+                                year, facultyFilter, afterId, PageRequest.of(0, pageSize)),
+                        this::renderRenewal);
+            }
+            zip.finish();
+        }
+
+        log.info("Exported {} application PDFs (year={}, faculty={}, type={}) in {} ms",
+                written, year, facultyFilter, type, System.currentTimeMillis() - started);
+    }
+
+    private int writeEntries(ZipOutputStream zip, LongFunction<List<Long>> idPage, DocumentRenderer renderer) throws IOException {
+        int window = pdfService.getRenderWorkers() * 2;
+        Deque<CompletableFuture<RenderedDocument>> inFlight = new ArrayDeque<>(window);
+        int written = 0;
+        long afterId = 0L;
+
+        List<Long> ids = idPage.apply(afterId);
+        while (!ids.isEmpty()) {
+            for (Long id : ids) {
+                if (inFlight.size() >= window) {
+                    writeEntry(zip, await(inFlight.poll()));
+                    written++;
+                }
+                inFlight.add(submit(renderer, id));
+            }
+            afterId = ids.get(ids.size() - 1);
+            ids = ids.size() < pageSize ? List.of() : idPage.apply(afterId);
+        }
+
+        while (!inFlight.isEmpty()) {
+            writeEntry(zip, await(inFlight.poll()));
+            written++;
+        }
+        return written;
+    }
+
+    private CompletableFuture<RenderedDocument> submit(DocumentRenderer renderer, Long id) throws IOException {
+        try {
+            return pdfService.submitRender(() -> renderer.render(id));
+        } catch (RejectedExecutionException e) {
+            // Render pool is saturated by other work; render on the export thread instead
+            return CompletableFuture.completedFuture(renderer.render(id));
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, RenderedDocument document) throws IOException {
+        Closeable lease = pdfCacheService.acquire(document.file());
+        try {
+            zip.putNextEntry(new ZipEntry(document.entryName()));
+            Files.copy(document.file(), zip);
+            zip.closeEntry();
+        } finally {
+            lease.close();
+        }
+    }
+
+    private RenderedDocument renderRegistration(Long id) throws IOException {
+        SocietyRegistration registration = registrationRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Registration not found with id: " + id));
+        Path file = pdfCacheService.getOrRender(PdfCacheService.REGISTRATION, id, registration.getUpdatedAt(),
+                () -> pdfService.generateRegistrationPDF(registration));
+        return new RenderedDocument(entryName("registrations", registration.getYear(), id, registration.getSocietyName()), file);
+    }
+
+    private RenderedDocument renderRenewal(Long id) throws IOException {
+        SocietyRenewal renewal = renewalRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Renewal not found with id: " + id));
+        Path file = pdfCacheService.getOrRender(PdfCacheService.RENEWAL, id, renewal.getUpdatedAt(),
+                () -> pdfService.generateRenewalPDF(renewal));
+        return new RenderedDocument(entryName("renewals", renewal.getYear(), id, renewal.getSocietyName()), file);
+    }
+
+    private static String entryName(String folder, Integer year, Long id, String societyName) {
+        String safeName = societyName == null ? "society" : societyName.replaceAll("[^A-Za-z0-9]+", "_");
+        return folder + "/" + year + "/" + id + "-" + safeName + ".pdf";
+    }
+
+    private static RenderedDocument await(CompletableFuture<RenderedDocument> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while exporting PDFs", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("PDF render failed during export", e.getCause());
+        }
+    }
+}
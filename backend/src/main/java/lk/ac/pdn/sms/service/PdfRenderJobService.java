@@ -0,0 +1,159 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.exception.BadRequestException;
+import lk.ac.pdn.sms.exception.ResourceNotFoundException;
+import lk.ac.pdn.sms.exception.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Background PDF rendering. A job is queued on the PDF render pool and the client
+ * polls (or subscribes) for completion, so large documents never hold a request thread.
+ * Finished jobs point at the file in the PDF cache and are forgotten after a short TTL.
+ * The cache may retire that file before then, so downloads look the document up again.
+ */
+@Service
+public class PdfRenderJobService {
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public static class RenderJob {
+        private final String id;
+        private final String documentType;
+        private final Long documentId;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final CompletableFuture<Path> result = new CompletableFuture<>();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile LocalDateTime completedAt;
+        private volatile String error;
+
+        RenderJob(String id, String documentType, Long documentId) {
+            this.id = id;
+            this.documentType = documentType;
+            this.documentId = documentId;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public JobStatus getStatus() {
+            return status;
+        }
+
+        public CompletableFuture<Path> getResult() {
+            return result;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("jobId", id);
+            map.put("documentType", documentType);
+            map.put("documentId", documentId);
+            map.put("status", status);
+            map.put("submittedAt", submittedAt);
+            map.put("completedAt", completedAt);
+            map.put("error", error);
+            return map;
+        }
+    }
+
+    private final PDFService pdfService;
+    private final SocietyService societyService;
+    private final RenewalService renewalService;
+    private final EventPermissionService eventPermissionService;
+    private final ConcurrentHashMap<String, RenderJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${app.pdf-render.job-ttl-minutes:30}")
+    private long jobTtlMinutes;
+
+    public PdfRenderJobService(PDFService pdfService,
+                               SocietyService societyService,
+                               RenewalService renewalService,
+                               EventPermissionService eventPermissionService) {
+        this.pdfService = pdfService;
+        this.societyService = societyService;
+        this.renewalService = renewalService;
+        this.eventPermissionService = eventPermissionService;
+    }
+
+    public RenderJob submit(String documentType, Long documentId) {
+        String type = documentType == null ? "" : documentType.toLowerCase();
+        if (!type.equals(PdfCacheService.REGISTRATION) && !type.equals(PdfCacheService.RENEWAL)
+                && !type.equals(PdfCacheService.EVENT)) {
+            throw new BadRequestException("Unknown document type: " + documentType);
+        }
+
+        RenderJob job = new RenderJob(UUID.randomUUID().toString(), type, documentId);
+        jobs.put(job.id, job);
+        try {
+            pdfService.submitRender(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ServiceBusyException("PDF render queue is full, please retry shortly");
+        }
+        return job;
+    }
+
+    public RenderJob getJob(String jobId) {
+        RenderJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Render job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private Path run(RenderJob job) {
+        job.status = JobStatus.RUNNING;
+        try {
+            Path file = render(job.documentType, job.documentId);
+            job.completedAt = LocalDateTime.now();
+            job.status = JobStatus.COMPLETED;
+            job.result.complete(file);
+            return file;
+        } catch (Exception e) {
+            job.error = e.getMessage();
+            job.completedAt = LocalDateTime.now();
+            job.status = JobStatus.FAILED;
+            job.result.completeExceptionally(e);
+            return null;
+        }
+    }
+
+    /**
+     * The cached file for a completed job's document, rendered again if the cache has dropped it.
+     */
+    public Path resolveFile(RenderJob job) throws IOException {
+        return render(job.documentType, job.documentId);
+    }
+
+    private Path render(String type, Long id) throws IOException {
+        switch (type) {
+            case PdfCacheService.REGISTRATION:
+                return societyService.generateRegistrationPDF(id);
+            case PdfCacheService.RENEWAL:
+                return renewalService.generateRenewalPDF(id);
+            default:
+                return eventPermissionService.generateEventPermissionPDF(id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.pdf-render.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobTtlMinutes);
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+    }
+}
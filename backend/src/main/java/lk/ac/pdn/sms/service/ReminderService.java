@@ -0,0 +1,249 @@
+package lk.ac.pdn.sms.service;
+
+import jakarta.annotation.PreDestroy;
+import lk.ac.pdn.sms.entity.AdminUser;
+import lk.ac.pdn.sms.entity.EventPermission;
+import lk.ac.pdn.sms.entity.ScheduledReminder;
+import lk.ac.pdn.sms.repository.EventPermissionRepository;
+import lk.ac.pdn.sms.repository.ScheduledReminderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reminder e-mails for event permissions: to the applicant ahead of an approved event, to
+ * Student Services on the day of an event needing late passes, and to the current approver
+ * when a request has been pending too long. Each reminder is a row in
+ * {@code scheduled_reminders} plus a timer in a {@link TimingWheel}; pending rows are loaded
+ * back into the wheel at startup, and overdue ones fire straight away. Reminders are
+ * (re)scheduled or cancelled from {@link EventPermissionChangedEvent}s, and the event is
+ * re-checked before sending in case its status moved on.
+ */
+@Service
+public class ReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderService.class);
+
+    private final ScheduledReminderRepository reminderRepository;
+    private final EventPermissionRepository eventPermissionRepository;
+    private final EmailService emailService;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    private final Map<Long, TimingWheel<Long>.Timeout> timers = new ConcurrentHashMap<>();
+    private TimingWheel<Long> wheel;
+    private ThreadPoolExecutor senderPool;
+
+    @Value("${app.reminders.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${app.reminders.wheel-size:4096}")
+    private int wheelSize;
+
+    @Value("${app.reminders.event-day-lead-hours:24}")
+    private long eventDayLeadHours;
+
+    @Value("${app.reminders.late-pass-notice-time:09:00}")
+    private String latePassNoticeTime;
+
+    @Value("${app.reminders.approval-sla-hours:72}")
+    private long approvalSlaHours;
+
+    @Value("${app.reminders.retention-days:30}")
+    private long retentionDays;
+
+    public ReminderService(ScheduledReminderRepository reminderRepository,
+                           EventPermissionRepository eventPermissionRepository,
+                           EmailService emailService,
+                           DataSource dataSource) {
+        this.reminderRepository = reminderRepository;
+        this.eventPermissionRepository = eventPermissionRepository;
+        this.emailService = emailService;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        senderPool = new ThreadPoolExecutor(1, 2, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "reminder-sender-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        // The wheel thread only hands due reminders over; lookups and mail run on the sender pool
+        wheel = new TimingWheel<>(tickMs, wheelSize, "reminder-wheel", id -> {
+            timers.remove(id);
+            senderPool.execute(() -> send(id));
+        });
+
+        streamingJdbcTemplate.query("SELECT id, due_at FROM scheduled_reminders WHERE status = 'PENDING'",
+                rs -> {
+                    arm(rs.getLong("id"), rs.getTimestamp("due_at").toLocalDateTime());
+                });
+        wheel.start();
+        log.info("Reminder wheel started with {} pending reminders", wheel.pending());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (wheel != null) {
+            wheel.stop();
+        }
+        if (senderPool != null) {
+            senderPool.shutdown();
+            senderPool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    // Runs after the caller's commit, so reminder rows are written in a transaction of their own
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventPermissionChanged(EventPermissionChangedEvent change) {
+        EventPermission event = change.event();
+        switch (event.getStatus()) {
+            case PENDING_AR, PENDING_VC -> {
+                // The SLA clock restarts at each approval stage
+                LocalDateTime since = change.previousStatus() == null && event.getSubmittedDate() != null
+                        ? event.getSubmittedDate() : LocalDateTime.now();
+                schedule(ScheduledReminder.ReminderType.APPROVAL_SLA, event.getId(), since.plusHours(approvalSlaHours));
+            }
+            case APPROVED -> {
+                cancel(ScheduledReminder.ReminderType.APPROVAL_SLA, event.getId());
+                if (event.getEventDate() == null) {
+                    return;
+                }
+                LocalDateTime start = event.getEventDate().atTime(
+                        event.getTimeFrom() != null ? event.getTimeFrom() : LocalTime.of(8, 0));
+                if (start.isAfter(LocalDateTime.now())) {
+                    schedule(ScheduledReminder.ReminderType.EVENT_DAY, event.getId(), start.minusHours(eventDayLeadHours));
+                    if (Boolean.TRUE.equals(event.getLatePassRequired())) {
+                        schedule(ScheduledReminder.ReminderType.LATE_PASS, event.getId(),
+                                event.getEventDate().atTime(LocalTime.parse(latePassNoticeTime)));
+                    }
+                }
+            }
+            case REJECTED -> reminderRepository.findByEventIdAndStatus(event.getId(), ScheduledReminder.ReminderStatus.PENDING)
+                    .forEach(this::cancel);
+        }
+    }
+
+    @Scheduled(cron = "${app.reminders.purge-cron:0 30 3 * * *}")
+    public void purgeFinished() {
+        int deleted = reminderRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} sent or cancelled reminders", deleted);
+        }
+    }
+
+    private void schedule(ScheduledReminder.ReminderType type, Long eventId, LocalDateTime dueAt) {
+        ScheduledReminder reminder = reminderRepository.findByTypeAndEventId(type, eventId).orElseGet(() -> {
+            ScheduledReminder created = new ScheduledReminder();
+            created.setType(type);
+            created.setEventId(eventId);
+            return created;
+        });
+        reminder.setDueAt(dueAt);
+        reminder.setStatus(ScheduledReminder.ReminderStatus.PENDING);
+        reminder.setSentAt(null);
+        Long id = reminderRepository.save(reminder).getId();
+        // Armed once the row is committed, so a timer that is already due cannot claim the old state
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    arm(id, dueAt);
+                }
+            });
+        } else {
+            arm(id, dueAt);
+        }
+    }
+
+    private void cancel(ScheduledReminder.ReminderType type, Long eventId) {
+        reminderRepository.findByTypeAndEventId(type, eventId)
+                .filter(reminder -> reminder.getStatus() == ScheduledReminder.ReminderStatus.PENDING)
+                .ifPresent(this::cancel);
+    }
+
+    private void cancel(ScheduledReminder reminder) {
+        reminder.setStatus(ScheduledReminder.ReminderStatus.CANCELLED);
+        reminderRepository.save(reminder);
+        disarm(reminder.getId());
+    }
+
+    private void arm(Long id, LocalDateTime dueAt) {
+        if (wheel == null) {
+            // Not started yet; the startup load picks the row up
+            return;
+        }
+        long deadline = dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        TimingWheel<Long>.Timeout previous = timers.put(id, wheel.schedule(id, deadline));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void disarm(Long id) {
+        TimingWheel<Long>.Timeout timeout = timers.remove(id);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void send(Long id) {
+        try {
+            // Loses to a reschedule that moved the due time, or to another instance
+            if (reminderRepository.claim(id, LocalDateTime.now()) == 0) {
+                return;
+            }
+            ScheduledReminder reminder = reminderRepository.findById(id).orElse(null);
+            EventPermission event = reminder == null ? null
+                    : eventPermissionRepository.findById(reminder.getEventId()).orElse(null);
+            if (event == null) {
+                return;
+            }
+            EventPermission.EventStatus status = event.getStatus();
+            switch (reminder.getType()) {
+                case EVENT_DAY -> {
+                    if (status == EventPermission.EventStatus.APPROVED) {
+                        emailService.sendEventDayReminder(event);
+                    }
+                }
+                case LATE_PASS -> {
+                    if (status == EventPermission.EventStatus.APPROVED) {
+                        emailService.sendLatePassNotice(event);
+                    }
+                }
+                case APPROVAL_SLA -> {
+                    if (status == EventPermission.EventStatus.PENDING_AR) {
+                        emailService.sendEventApprovalReminder(event, AdminUser.Role.ASSISTANT_REGISTRAR);
+                    } else if (status == EventPermission.EventStatus.PENDING_VC) {
+                        emailService.sendEventApprovalReminder(event, AdminUser.Role.VICE_CHANCELLOR);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to send reminder {}", id, e);
+        }
+    }
+}
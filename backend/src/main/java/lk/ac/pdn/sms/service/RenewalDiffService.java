@@ -0,0 +1,204 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.dto.SocietyRenewalDto;
+import lk.ac.pdn.sms.entity.Society;
+import lk.ac.pdn.sms.entity.SocietyRegistration;
+import lk.ac.pdn.sms.entity.SocietyRenewal;
+import lk.ac.pdn.sms.exception.ResourceNotFoundException;
+import lk.ac.pdn.sms.repository.SocietyRegistrationRepository;
+import lk.ac.pdn.sms.repository.SocietyRenewalRepository;
+import lk.ac.pdn.sms.repository.SocietyRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * What changed in a renewal compared with what the society had before: the previous
+ * approved renewal, else the approved registration, else the society record. Both sides
+ * are put in {@link SocietyRenewalDto} shape first. Only changed fields are returned;
+ * member lists are compared as hash maps keyed by registration number (advisory board by
+ * name), so the cost is linear in the list sizes.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RenewalDiffService {
+
+    private static final Map<String, Function<SocietyRenewalDto, String>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("website", SocietyRenewalDto::getWebsite);
+        FIELDS.put("bankAccount", SocietyRenewalDto::getBankAccount);
+        FIELDS.put("bankName", SocietyRenewalDto::getBankName);
+        FIELDS.put("seniorTreasurerTitle", SocietyRenewalDto::getSeniorTreasurerTitle);
+        FIELDS.put("seniorTreasurerFullName", SocietyRenewalDto::getSeniorTreasurerFullName);
+        FIELDS.put("seniorTreasurerDesignation", SocietyRenewalDto::getSeniorTreasurerDesignation);
+        FIELDS.put("seniorTreasurerDepartment", SocietyRenewalDto::getSeniorTreasurerDepartment);
+        FIELDS.put("seniorTreasurerEmail", SocietyRenewalDto::getSeniorTreasurerEmail);
+        FIELDS.put("seniorTreasurerAddress", SocietyRenewalDto::getSeniorTreasurerAddress);
+        FIELDS.put("seniorTreasurerMobile", SocietyRenewalDto::getSeniorTreasurerMobile);
+        FIELDS.put("presidentRegNo", SocietyRenewalDto::getPresidentRegNo);
+        FIELDS.put("presidentName", SocietyRenewalDto::getPresidentName);
+        FIELDS.put("presidentAddress", SocietyRenewalDto::getPresidentAddress);
+        FIELDS.put("presidentEmail", SocietyRenewalDto::getPresidentEmail);
+        FIELDS.put("presidentMobile", SocietyRenewalDto::getPresidentMobile);
+        FIELDS.put("vicePresidentRegNo", SocietyRenewalDto::getVicePresidentRegNo);
+        FIELDS.put("vicePresidentName", SocietyRenewalDto::getVicePresidentName);
+        FIELDS.put("vicePresidentAddress", SocietyRenewalDto::getVicePresidentAddress);
+        FIELDS.put("vicePresidentEmail", SocietyRenewalDto::getVicePresidentEmail);
+        FIELDS.put("vicePresidentMobile", SocietyRenewalDto::getVicePresidentMobile);
+        FIELDS.put("juniorTreasurerRegNo", SocietyRenewalDto::getJuniorTreasurerRegNo);
+        FIELDS.put("juniorTreasurerName", SocietyRenewalDto::getJuniorTreasurerName);
+        FIELDS.put("juniorTreasurerAddress", SocietyRenewalDto::getJuniorTreasurerAddress);
+        FIELDS.put("juniorTreasurerEmail", SocietyRenewalDto::getJuniorTreasurerEmail);
+        FIELDS.put("juniorTreasurerMobile", SocietyRenewalDto::getJuniorTreasurerMobile);
+        FIELDS.put("secretaryRegNo", SocietyRenewalDto::getSecretaryRegNo);
+        FIELDS.put("secretaryName", SocietyRenewalDto::getSecretaryName);
+        FIELDS.put("secretaryAddress", SocietyRenewalDto::getSecretaryAddress);
+        FIELDS.put("secretaryEmail", SocietyRenewalDto::getSecretaryEmail);
+        FIELDS.put("secretaryMobile", SocietyRenewalDto::getSecretaryMobile);
+        FIELDS.put("jointSecretaryRegNo", SocietyRenewalDto::getJointSecretaryRegNo);
+        FIELDS.put("jointSecretaryName", SocietyRenewalDto::getJointSecretaryName);
+        FIELDS.put("jointSecretaryAddress", SocietyRenewalDto::getJointSecretaryAddress);
+        FIELDS.put("jointSecretaryEmail", SocietyRenewalDto::getJointSecretaryEmail);
+        FIELDS.put("jointSecretaryMobile", SocietyRenewalDto::getJointSecretaryMobile);
+        FIELDS.put("editorRegNo", SocietyRenewalDto::getEditorRegNo);
+        FIELDS.put("editorName", SocietyRenewalDto::getEditorName);
+        FIELDS.put("editorAddress", SocietyRenewalDto::getEditorAddress);
+        FIELDS.put("editorEmail", SocietyRenewalDto::getEditorEmail);
+        FIELDS.put("editorMobile", SocietyRenewalDto::getEditorMobile);
+    }
+
+    private final SocietyRenewalRepository renewalRepository;
+    private final SocietyRegistrationRepository registrationRepository;
+    private final SocietyRepository societyRepository;
+    private final RenewalPrefillService snapshots;
+
+    public RenewalDiffService(SocietyRenewalRepository renewalRepository,
+                              SocietyRegistrationRepository registrationRepository,
+                              SocietyRepository societyRepository,
+                              RenewalPrefillService snapshots) {
+        this.renewalRepository = renewalRepository;
+        this.registrationRepository = registrationRepository;
+        this.societyRepository = societyRepository;
+        this.snapshots = snapshots;
+    }
+
+    public Map<String, Object> diff(Long renewalId) {
+        SocietyRenewal renewal = renewalRepository.findById(renewalId)
+                .orElseThrow(() -> new ResourceNotFoundException("Renewal not found with id: " + renewalId));
+        SocietyRenewalDto current = snapshots.fromRenewal(renewal);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("renewalId", renewal.getId());
+        result.put("societyName", renewal.getSocietyName());
+
+        SocietyRenewalDto previous;
+        Optional<SocietyRenewal> previousRenewal = renewalRepository.findLatestApprovedWithMembers(
+                renewal.getSocietyName(), renewal.getId());
+        Optional<SocietyRegistration> registration;
+        Optional<Society> society;
+        if (previousRenewal.isPresent()) {
+            previous = snapshots.fromRenewal(previousRenewal.get());
+            result.put("comparedWith", baseline("renewal", previousRenewal.get().getId(), previousRenewal.get().getYear()));
+        } else if ((registration = registrationRepository.findLatestApprovedWithMembers(renewal.getSocietyName())).isPresent()) {
+            previous = snapshots.fromRegistration(registration.get());
+            result.put("comparedWith", baseline("registration", registration.get().getId(), registration.get().getYear()));
+        } else if ((society = societyRepository.findBySocietyName(renewal.getSocietyName())).isPresent()) {
+            previous = snapshots.fromSociety(society.get());
+            result.put("comparedWith", baseline("society", society.get().getId(), society.get().getYear()));
+        } else {
+            throw new ResourceNotFoundException("Society not found with name: " + renewal.getSocietyName());
+        }
+
+        List<Map<String, Object>> changes = new ArrayList<>();
+        for (Map.Entry<String, Function<SocietyRenewalDto, String>> field : FIELDS.entrySet()) {
+            String before = clean(field.getValue().apply(previous));
+            String after = clean(field.getValue().apply(current));
+            if (!Objects.equals(before, after)) {
+                Map<String, Object> change = new LinkedHashMap<>();
+                change.put("field", field.getKey());
+                change.put("previous", before);
+                change.put("current", after);
+                changes.add(change);
+            }
+        }
+        result.put("changedFields", changes);
+        result.put("unchangedFieldCount", FIELDS.size() - changes.size());
+
+        result.put("members", compare(previous.getMember(), current.getMember(),
+                m -> key(m.getRegNo()), SocietyRenewalDto.MemberDto::getName));
+        result.put("committeeMembers", compare(previous.getCommitteeMember(), current.getCommitteeMember(),
+                c -> key(c.getRegNo()), SocietyRenewalDto.CommitteeMemberDto::getName));
+        result.put("advisoryBoard", compare(previous.getAdvisoryBoard(), current.getAdvisoryBoard(),
+                a -> key(a.getName()), a -> clean(a.getDesignation()) + " / " + clean(a.getDepartment())));
+        return result;
+    }
+
+    /**
+     * Added and removed entries by key, plus entries whose key matches but whose detail differs.
+     */
+    private static <T> Map<String, Object> compare(List<T> previous, List<T> current,
+                                                   Function<T, String> keyOf, Function<T, String> detailOf) {
+        Map<String, T> before = index(previous, keyOf);
+        Map<String, T> after = index(current, keyOf);
+
+        List<T> added = new ArrayList<>();
+        List<Map<String, Object>> changed = new ArrayList<>();
+        for (Map.Entry<String, T> entry : after.entrySet()) {
+            T old = before.remove(entry.getKey());
+            if (old == null) {
+                added.add(entry.getValue());
+            } else if (!Objects.equals(clean(detailOf.apply(old)), clean(detailOf.apply(entry.getValue())))) {
+                Map<String, Object> change = new LinkedHashMap<>();
+                change.put("previous", old);
+                change.put("current", entry.getValue());
+                changed.add(change);
+            }
+        }
+
+        Map<String, Object> diff = new LinkedHashMap<>();
+        diff.put("added", added);
+        diff.put("removed", new ArrayList<>(before.values()));
+        diff.put("changed", changed);
+        diff.put("previousCount", previous == null ? 0 : previous.size());
+        diff.put("currentCount", current == null ? 0 : current.size());
+        return diff;
+    }
+
+    private static <T> Map<String, T> index(List<T> items, Function<T, String> keyOf) {
+        Map<String, T> map = new LinkedHashMap<>(items == null ? 16 : items.size() * 2);
+        if (items != null) {
+            for (T item : items) {
+                String key = keyOf.apply(item);
+                if (key != null) {
+                    map.putIfAbsent(key, item);
+                }
+            }
+        }
+        return map;
+    }
+
+    private static Map<String, Object> baseline(String source, Long id, Integer year) {
+        Map<String, Object> baseline = new LinkedHashMap<>();
+        baseline.put("source", source);
+        baseline.put("id", id);
+        baseline.put("year", year);
+        return baseline;
+    }
+
+    private static String key(String value) {
+        String cleaned = clean(value);
+        return cleaned == null ? null : cleaned.toUpperCase(Locale.ROOT);
+    }
+
+    // Whitespace-only edits and blank vs missing are not reported as changes
+    private static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim().replaceAll("\\s+", " ");
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,348 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.dto.SocietyRenewalDto;
+import lk.ac.pdn.sms.entity.*;
+import lk.ac.pdn.sms.exception.ResourceNotFoundException;
+import lk.ac.pdn.sms.repository.SocietyRegistrationRepository;
+import lk.ac.pdn.sms.repository.SocietyRenewalRepository;
+import lk.ac.pdn.sms.repository.SocietyRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds a renewal form pre-filled from what the university already holds for a society:
+ * the latest approved renewal, else the approved registration, else the society record.
+ * Applicant details, AGM date and difficulties are left for the applicant, and last
+ * year's planned events become this year's previous activities. Results are cached per
+ * society and evicted when one of its applications is approved. Each eviction bumps the
+ * society's version, and a result built under an older version is not cached.
+ */
+@Service
+public class RenewalPrefillService {
+
+    private final SocietyRenewalRepository renewalRepository;
+    private final SocietyRegistrationRepository registrationRepository;
+    private final SocietyRepository societyRepository;
+    private record CachedPrefill(long version, SocietyRenewalDto dto) {
+    }
+
+    private final Map<String, CachedPrefill> cache = new ConcurrentHashMap<>();
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    public RenewalPrefillService(SocietyRenewalRepository renewalRepository,
+                                 SocietyRegistrationRepository registrationRepository,
+                                 SocietyRepository societyRepository) {
+        this.renewalRepository = renewalRepository;
+        this.registrationRepository = registrationRepository;
+        this.societyRepository = societyRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public SocietyRenewalDto getPrefill(String societyName) {
+        long version = versions.getOrDefault(societyName, 0L);
+        CachedPrefill cached = cache.get(societyName);
+        if (cached != null && cached.version() == version) {
+            return cached.dto();
+        }
+        SocietyRenewalDto dto = build(societyName);
+        // An evict during the build moved the version on; the snapshot may predate it
+        cache.compute(societyName, (name, existing) ->
+                versions.getOrDefault(name, 0L) == version ? new CachedPrefill(version, dto) : existing);
+        return dto;
+    }
+
+    public void evict(String societyName) {
+        if (societyName == null) {
+            return;
+        }
+        invalidate(societyName);
+        // Again after commit, so reads that saw the pre-approval data cannot cache it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(societyName);
+                }
+            });
+        }
+    }
+
+    private void invalidate(String societyName) {
+        versions.merge(societyName, 1L, Long::sum);
+        cache.remove(societyName);
+    }
+
+    private SocietyRenewalDto build(String societyName) {
+        Optional<SocietyRenewal> renewal = renewalRepository.findLatestApprovedWithMembers(societyName, Long.MAX_VALUE);
+        if (renewal.isPresent()) {
+            return fromRenewal(renewal.get());
+        }
+        Optional<SocietyRegistration> registration = registrationRepository.findLatestApprovedWithMembers(societyName);
+        if (registration.isPresent()) {
+            return fromRegistration(registration.get());
+        }
+        Society society = societyRepository.findBySocietyName(societyName)
+                .orElseThrow(() -> new ResourceNotFoundException("Society not found with name: " + societyName));
+        return fromSociety(society);
+    }
+
+    // The from* snapshots are also what RenewalDiffService compares
+    SocietyRenewalDto fromRenewal(SocietyRenewal r) {
+        SocietyRenewalDto dto = new SocietyRenewalDto();
+        dto.setSocietyName(r.getSocietyName());
+        dto.setWebsite(r.getWebsite());
+        dto.setBankAccount(r.getBankAccount());
+        dto.setBankName(r.getBankName());
+        dto.setSeniorTreasurerTitle(r.getSeniorTreasurerTitle());
+        dto.setSeniorTreasurerFullName(r.getSeniorTreasurerFullName());
+        dto.setSeniorTreasurerDesignation(r.getSeniorTreasurerDesignation());
+        dto.setSeniorTreasurerDepartment(r.getSeniorTreasurerDepartment());
+        dto.setSeniorTreasurerEmail(r.getSeniorTreasurerEmail());
+        dto.setSeniorTreasurerAddress(r.getSeniorTreasurerAddress());
+        dto.setSeniorTreasurerMobile(r.getSeniorTreasurerMobile());
+
+        dto.setPresidentRegNo(r.getPresidentRegNo());
+        dto.setPresidentName(r.getPresidentName());
+        dto.setPresidentAddress(r.getPresidentAddress());
+        dto.setPresidentEmail(r.getPresidentEmail());
+        dto.setPresidentMobile(r.getPresidentMobile());
+        dto.setVicePresidentRegNo(r.getVicePresidentRegNo());
+        dto.setVicePresidentName(r.getVicePresidentName());
+        dto.setVicePresidentAddress(r.getVicePresidentAddress());
+        dto.setVicePresidentEmail(r.getVicePresidentEmail());
+        dto.setVicePresidentMobile(r.getVicePresidentMobile());
+        dto.setJuniorTreasurerRegNo(r.getJuniorTreasurerRegNo());
+        dto.setJuniorTreasurerName(r.getJuniorTreasurerName());
+        dto.setJuniorTreasurerAddress(r.getJuniorTreasurerAddress());
+        dto.setJuniorTreasurerEmail(r.getJuniorTreasurerEmail());
+        dto.setJuniorTreasurerMobile(r.getJuniorTreasurerMobile());
+        dto.setSecretaryRegNo(r.getSecretaryRegNo());
+        dto.setSecretaryName(r.getSecretaryName());
+        dto.setSecretaryAddress(r.getSecretaryAddress());
+        dto.setSecretaryEmail(r.getSecretaryEmail());
+        dto.setSecretaryMobile(r.getSecretaryMobile());
+        dto.setJointSecretaryRegNo(r.getJointSecretaryRegNo());
+        dto.setJointSecretaryName(r.getJointSecretaryName());
+        dto.setJointSecretaryAddress(r.getJointSecretaryAddress());
+        dto.setJointSecretaryEmail(r.getJointSecretaryEmail());
+        dto.setJointSecretaryMobile(r.getJointSecretaryMobile());
+        dto.setEditorRegNo(r.getEditorRegNo());
+        dto.setEditorName(r.getEditorName());
+        dto.setEditorAddress(r.getEditorAddress());
+        dto.setEditorEmail(r.getEditorEmail());
+        dto.setEditorMobile(r.getEditorMobile());
+
+        List<SocietyRenewalDto.AdvisoryBoardMemberDto> advisoryBoard = new ArrayList<>();
+        for (RenewalAdvisoryBoardMember a : nonNull(r.getAdvisoryBoard())) {
+            advisoryBoard.add(advisoryMember(a.getName(), a.getDesignation(), a.getDepartment()));
+        }
+        dto.setAdvisoryBoard(advisoryBoard);
+
+        List<SocietyRenewalDto.CommitteeMemberDto> committee = new ArrayList<>();
+        for (RenewalCommitteeMember c : nonNull(r.getCommitteeMember())) {
+            committee.add(committeeMember(c.getRegNo(), c.getName()));
+        }
+        dto.setCommitteeMember(committee);
+
+        List<SocietyRenewalDto.MemberDto> members = new ArrayList<>();
+        for (RenewalSocietyMember m : nonNull(r.getMember())) {
+            members.add(member(m.getRegNo(), m.getName()));
+        }
+        dto.setMember(members);
+
+        List<SocietyRenewalDto.PreviousActivityDto> previous = new ArrayList<>();
+        for (RenewalPlanningEvent p : nonNull(r.getPlanningEvents())) {
+            previous.add(previousActivity(p.getEventDate(), p.getActivity()));
+        }
+        dto.setPreviousActivities(previous);
+        dto.setPlanningEvents(new ArrayList<>());
+        return dto;
+    }
+
+    SocietyRenewalDto fromRegistration(SocietyRegistration r) {
+        SocietyRenewalDto dto = new SocietyRenewalDto();
+        dto.setSocietyName(r.getSocietyName());
+        dto.setBankAccount(r.getBankAccount());
+        dto.setBankName(r.getBankName());
+        dto.setSeniorTreasurerTitle(r.getSeniorTreasurerTitle());
+        dto.setSeniorTreasurerFullName(r.getSeniorTreasurerFullName());
+        dto.setSeniorTreasurerDesignation(r.getSeniorTreasurerDesignation());
+        dto.setSeniorTreasurerDepartment(r.getSeniorTreasurerDepartment());
+        dto.setSeniorTreasurerEmail(r.getSeniorTreasurerEmail());
+        dto.setSeniorTreasurerAddress(r.getSeniorTreasurerAddress());
+        dto.setSeniorTreasurerMobile(r.getSeniorTreasurerMobile());
+
+        dto.setPresidentRegNo(r.getPresidentRegNo());
+        dto.setPresidentName(r.getPresidentName());
+        dto.setPresidentAddress(r.getPresidentAddress());
+        dto.setPresidentEmail(r.getPresidentEmail());
+        dto.setPresidentMobile(r.getPresidentMobile());
+        dto.setVicePresidentRegNo(r.getVicePresidentRegNo());
+        dto.setVicePresidentName(r.getVicePresidentName());
+        dto.setVicePresidentAddress(r.getVicePresidentAddress());
+        dto.setVicePresidentEmail(r.getVicePresidentEmail());
+        dto.setVicePresidentMobile(r.getVicePresidentMobile());
+        dto.setJuniorTreasurerRegNo(r.getJuniorTreasurerRegNo());
+        dto.setJuniorTreasurerName(r.getJuniorTreasurerName());
+        dto.setJuniorTreasurerAddress(r.getJuniorTreasurerAddress());
+        dto.setJuniorTreasurerEmail(r.getJuniorTreasurerEmail());
+        dto.setJuniorTreasurerMobile(r.getJuniorTreasurerMobile());
+        dto.setSecretaryRegNo(r.getSecretaryRegNo());
+        dto.setSecretaryName(r.getSecretaryName());
+        dto.setSecretaryAddress(r.getSecretaryAddress());
+        dto.setSecretaryEmail(r.getSecretaryEmail());
+        dto.setSecretaryMobile(r.getSecretaryMobile());
+        dto.setJointSecretaryRegNo(r.getJointSecretaryRegNo());
+        dto.setJointSecretaryName(r.getJointSecretaryName());
+        dto.setJointSecretaryAddress(r.getJointSecretaryAddress());
+        dto.setJointSecretaryEmail(r.getJointSecretaryEmail());
+        dto.setJointSecretaryMobile(r.getJointSecretaryMobile());
+        dto.setEditorRegNo(r.getEditorRegNo());
+        dto.setEditorName(r.getEditorName());
+        dto.setEditorAddress(r.getEditorAddress());
+        dto.setEditorEmail(r.getEditorEmail());
+        dto.setEditorMobile(r.getEditorMobile());
+
+        List<SocietyRenewalDto.AdvisoryBoardMemberDto> advisoryBoard = new ArrayList<>();
+        for (AdvisoryBoardMember a : nonNull(r.getAdvisoryBoard())) {
+            advisoryBoard.add(advisoryMember(a.getName(), a.getDesignation(), a.getDepartment()));
+        }
+        dto.setAdvisoryBoard(advisoryBoard);
+
+        List<SocietyRenewalDto.CommitteeMemberDto> committee = new ArrayList<>();
+        for (CommitteeMember c : nonNull(r.getCommitteeMember())) {
+            committee.add(committeeMember(c.getRegNo(), c.getName()));
+        }
+        dto.setCommitteeMember(committee);
+
+        List<SocietyRenewalDto.MemberDto> members = new ArrayList<>();
+        for (SocietyMember m : nonNull(r.getMember())) {
+            members.add(member(m.getRegNo(), m.getName()));
+        }
+        dto.setMember(members);
+
+        List<SocietyRenewalDto.PreviousActivityDto> previous = new ArrayList<>();
+        for (PlanningEvent p : nonNull(r.getPlanningEvents())) {
+            previous.add(previousActivity(p.getEventDate(), p.getActivity()));
+        }
+        dto.setPreviousActivities(previous);
+        dto.setPlanningEvents(new ArrayList<>());
+        return dto;
+    }
+
+    // Societies imported without an application on record
+    SocietyRenewalDto fromSociety(Society s) {
+        SocietyRenewalDto dto = new SocietyRenewalDto();
+        dto.setSocietyName(s.getSocietyName());
+        dto.setWebsite(s.getWebsite());
+        dto.setBankAccount(s.getBankAccount());
+        dto.setBankName(s.getBankName());
+        dto.setSeniorTreasurerTitle(s.getSeniorTreasurerTitle());
+        dto.setSeniorTreasurerFullName(s.getSeniorTreasurerFullName());
+        dto.setSeniorTreasurerDesignation(s.getSeniorTreasurerDesignation());
+        dto.setSeniorTreasurerDepartment(s.getSeniorTreasurerDepartment());
+        dto.setSeniorTreasurerEmail(s.getSeniorTreasurerEmail());
+        dto.setSeniorTreasurerAddress(s.getSeniorTreasurerAddress());
+        dto.setSeniorTreasurerMobile(s.getSeniorTreasurerMobile());
+
+        for (SocietyOfficial o : nonNull(s.getOfficials())) {
+            switch (o.getPosition()) {
+                case PRESIDENT:
+                    dto.setPresidentRegNo(o.getRegNo());
+                    dto.setPresidentName(o.getName());
+                    dto.setPresidentAddress(o.getAddress());
+                    dto.setPresidentEmail(o.getEmail());
+                    dto.setPresidentMobile(o.getMobile());
+                    break;
+                case VICE_PRESIDENT:
+                    dto.setVicePresidentRegNo(o.getRegNo());
+                    dto.setVicePresidentName(o.getName());
+                    dto.setVicePresidentAddress(o.getAddress());
+                    dto.setVicePresidentEmail(o.getEmail());
+                    dto.setVicePresidentMobile(o.getMobile());
+                    break;
+                case JUNIOR_TREASURER:
+                    dto.setJuniorTreasurerRegNo(o.getRegNo());
+                    dto.setJuniorTreasurerName(o.getName());
+                    dto.setJuniorTreasurerAddress(o.getAddress());
+                    dto.setJuniorTreasurerEmail(o.getEmail());
+                    dto.setJuniorTreasurerMobile(o.getMobile());
+                    break;
+                case SECRETARY:
+                    dto.setSecretaryRegNo(o.getRegNo());
+                    dto.setSecretaryName(o.getName());
+                    dto.setSecretaryAddress(o.getAddress());
+                    dto.setSecretaryEmail(o.getEmail());
+                    dto.setSecretaryMobile(o.getMobile());
+                    break;
+                case JOINT_SECRETARY:
+                    dto.setJointSecretaryRegNo(o.getRegNo());
+                    dto.setJointSecretaryName(o.getName());
+                    dto.setJointSecretaryAddress(o.getAddress());
+                    dto.setJointSecretaryEmail(o.getEmail());
+                    dto.setJointSecretaryMobile(o.getMobile());
+                    break;
+                case EDITOR:
+                    dto.setEditorRegNo(o.getRegNo());
+                    dto.setEditorName(o.getName());
+                    dto.setEditorAddress(o.getAddress());
+                    dto.setEditorEmail(o.getEmail());
+                    dto.setEditorMobile(o.getMobile());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        dto.setAdvisoryBoard(new ArrayList<>());
+        dto.setCommitteeMember(new ArrayList<>());
+        dto.setMember(new ArrayList<>());
+        dto.setPreviousActivities(new ArrayList<>());
+        dto.setPlanningEvents(new ArrayList<>());
+        return dto;
+    }
+
+    private static SocietyRenewalDto.AdvisoryBoardMemberDto advisoryMember(String name, String designation, String department) {
+        SocietyRenewalDto.AdvisoryBoardMemberDto dto = new SocietyRenewalDto.AdvisoryBoardMemberDto();
+        dto.setName(name);
+        dto.setDesignation(designation);
+        dto.setDepartment(department);
+        return dto;
+    }
+
+    private static SocietyRenewalDto.CommitteeMemberDto committeeMember(String regNo, String name) {
+        SocietyRenewalDto.CommitteeMemberDto dto = new SocietyRenewalDto.CommitteeMemberDto();
+        dto.setRegNo(regNo);
+        dto.setName(name);
+        return dto;
+    }
+
+    private static SocietyRenewalDto.MemberDto member(String regNo, String name) {
+        SocietyRenewalDto.MemberDto dto = new SocietyRenewalDto.MemberDto();
+        dto.setRegNo(regNo);
+        dto.setName(name);
+        return dto;
+    }
+
+    private static SocietyRenewalDto.PreviousActivityDto previousActivity(LocalDate date, String activity) {
+        SocietyRenewalDto.PreviousActivityDto dto = new SocietyRenewalDto.PreviousActivityDto();
+        dto.setMonth(date != null ? date.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH) : null);
+        dto.setActivity(activity);
+        return dto;
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list != null ? list : List.of();
+    }
+}
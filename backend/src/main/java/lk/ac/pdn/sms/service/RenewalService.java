@@ -4,14 +4,19 @@ import lk.ac.pdn.sms.dto.SocietyRenewalDto;
 import lk.ac.pdn.sms.dto.ApprovalDto;
 import lk.ac.pdn.sms.entity.*;
 import lk.ac.pdn.sms.repository.*;
+import lk.ac.pdn.sms.exception.ConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,7 +32,7 @@ public class RenewalService {
     private SocietyRepository societyRepository;
 
     @Autowired
-    private AdminUserRepository adminUserRepository;
+    private AdminPrincipalCache adminPrincipalCache;
 
     @Autowired
     private EmailService emailService;
@@ -38,18 +43,41 @@ public class RenewalService {
     @Autowired
     private PDFService pdfService;
 
+    @Autowired
+    private PdfCacheService pdfCacheService;
+
+    @Autowired
+    private RenewalPrefillService renewalPrefillService;
+
     public SocietyRenewal submitRenewal(SocietyRenewalDto dto) {
-        // FIX: Use findBySocietyName to check existence, ignoring status
-        // This allows both Active and Inactive societies to renew
-        Society existingSociety = societyRepository.findBySocietyName(dto.getSocietyName())
-                .orElseThrow(() -> new RuntimeException("Society not found with name: " + dto.getSocietyName()));
+        String uploadToken = UploadTokens.issue();
+        SocietyRenewal renewal = submitRenewal(dto, UploadTokens.hash(uploadToken));
+        renewal.setUploadToken(uploadToken);
+        return renewal;
+    }
 
-        if (renewalRepository.existsBySocietyNameAndYear(dto.getSocietyName(), LocalDate.now().getYear())) {
-            throw new RuntimeException("Renewal already submitted for this society in current year");
+    /**
+     * Submits with a member upload token issued earlier (queued submissions), given by its hash.
+     */
+    public SocietyRenewal submitRenewal(SocietyRenewalDto dto, String uploadTokenHash) {
+        // FIX: Check existence ignoring status
+        // This allows both Active and Inactive societies to renew
+        if (!societyRepository.existsBySocietyName(dto.getSocietyName())) {
+            throw new RuntimeException("Society not found with name: " + dto.getSocietyName());
         }
 
+        // Insert first and let the (society_name, year) unique key reject duplicates
         SocietyRenewal renewal = convertToEntity(dto);
-        renewal = renewalRepository.save(renewal);
+        renewal.setUploadTokenHash(uploadTokenHash);
+        try {
+            renewal = renewalRepository.saveAndFlush(renewal);
+        } catch (DataIntegrityViolationException e) {
+            String cause = e.getMostSpecificCause().getMessage();
+            if (cause != null && cause.contains(SocietyRenewal.UNIQUE_SOCIETY_YEAR)) {
+                throw new ConflictException("Renewal already submitted for this society in current year");
+            }
+            throw e;
+        }
 
         emailService.sendRenewalConfirmation(renewal);
         emailService.notifyDeanForRenewalApproval(renewal);
@@ -60,8 +88,12 @@ public class RenewalService {
 
     // ... (Rest of the file remains the same as previously provided) ...
 
+    public SocietyRenewalDto getRenewalPrefill(String societyName) {
+        return renewalPrefillService.getPrefill(societyName);
+    }
+
     public List<SocietyRenewal> getPendingRenewals(String faculty, String status, String userEmail) {
-        AdminUser admin = adminUserRepository.findByEmail(userEmail)
+        AdminUser admin = adminPrincipalCache.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("Admin user not found"));
 
         if (admin.getRole() == AdminUser.Role.DEAN) {
@@ -91,7 +123,7 @@ public class RenewalService {
 
     public SocietyRenewal approveRenewal(Long id, ApprovalDto approvalDto, String userEmail) {
         SocietyRenewal renewal = getRenewalById(id);
-        AdminUser admin = adminUserRepository.findByEmail(userEmail)
+        AdminUser admin = adminPrincipalCache.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("Admin user not found"));
 
         switch (admin.getRole()) {
@@ -117,6 +149,7 @@ public class RenewalService {
                     renewal.setStatus(SocietyRenewal.RenewalStatus.APPROVED);
                     renewal.setApprovedDate(LocalDateTime.now());
                     updateSocietyFromRenewal(renewal);
+                    renewalPrefillService.evict(renewal.getSocietyName());
                     emailService.sendRenewalApprovalNotification(renewal);
                 }
                 break;
@@ -125,14 +158,14 @@ public class RenewalService {
         }
 
         renewal = renewalRepository.save(renewal);
-        activityLogService.logActivity("Renewal Approved", renewal.getSocietyName(), admin.getName());
+        activityLogService.logActivity("Renewal Approved", renewal.getSocietyName(), String.valueOf(admin.getId()), admin.getName());
 
         return renewal;
     }
 
     public SocietyRenewal rejectRenewal(Long id, ApprovalDto approvalDto, String userEmail) {
         SocietyRenewal renewal = getRenewalById(id);
-        AdminUser admin = adminUserRepository.findByEmail(userEmail)
+        AdminUser admin = adminPrincipalCache.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("Admin user not found"));
 
         renewal.setStatus(SocietyRenewal.RenewalStatus.REJECTED);
@@ -140,13 +173,15 @@ public class RenewalService {
         renewal = renewalRepository.save(renewal);
 
         emailService.sendRenewalRejectionNotification(renewal);
-        activityLogService.logActivity("Renewal Rejected", renewal.getSocietyName(), admin.getName());
+        activityLogService.logActivity("Renewal Rejected", renewal.getSocietyName(), String.valueOf(admin.getId()), admin.getName());
 
         return renewal;
     }
 
-    public byte[] generateRenewalPDF(Long id) {
-        return new byte[0];
+    public Path generateRenewalPDF(Long id) throws IOException {
+        SocietyRenewal renewal = getRenewalById(id);
+        return pdfCacheService.getOrRender(PdfCacheService.RENEWAL, id, renewal.getUpdatedAt(),
+                () -> pdfService.generateRenewalPDF(renewal));
     }
 
     public Map<String, Object> getRenewalStatistics() {
@@ -183,6 +218,105 @@ public class RenewalService {
         renewal.setSeniorTreasurerAddress(dto.getSeniorTreasurerAddress());
         renewal.setSeniorTreasurerMobile(dto.getSeniorTreasurerMobile());
 
+        renewal.setPresidentRegNo(dto.getPresidentRegNo());
+        renewal.setPresidentName(dto.getPresidentName());
+        renewal.setPresidentAddress(dto.getPresidentAddress());
+        renewal.setPresidentEmail(dto.getPresidentEmail());
+        renewal.setPresidentMobile(dto.getPresidentMobile());
+
+        renewal.setVicePresidentRegNo(dto.getVicePresidentRegNo());
+        renewal.setVicePresidentName(dto.getVicePresidentName());
+        renewal.setVicePresidentAddress(dto.getVicePresidentAddress());
+        renewal.setVicePresidentEmail(dto.getVicePresidentEmail());
+        renewal.setVicePresidentMobile(dto.getVicePresidentMobile());
+
+        renewal.setJuniorTreasurerRegNo(dto.getJuniorTreasurerRegNo());
+        renewal.setJuniorTreasurerName(dto.getJuniorTreasurerName());
+        renewal.setJuniorTreasurerAddress(dto.getJuniorTreasurerAddress());
+        renewal.setJuniorTreasurerEmail(dto.getJuniorTreasurerEmail());
+        renewal.setJuniorTreasurerMobile(dto.getJuniorTreasurerMobile());
+
+        renewal.setSecretaryRegNo(dto.getSecretaryRegNo());
+        renewal.setSecretaryName(dto.getSecretaryName());
+        renewal.setSecretaryAddress(dto.getSecretaryAddress());
+        renewal.setSecretaryEmail(dto.getSecretaryEmail());
+        renewal.setSecretaryMobile(dto.getSecretaryMobile());
+
+        renewal.setJointSecretaryRegNo(dto.getJointSecretaryRegNo());
+        renewal.setJointSecretaryName(dto.getJointSecretaryName());
+        renewal.setJointSecretaryAddress(dto.getJointSecretaryAddress());
+        renewal.setJointSecretaryEmail(dto.getJointSecretaryEmail());
+        renewal.setJointSecretaryMobile(dto.getJointSecretaryMobile());
+
+        renewal.setEditorRegNo(dto.getEditorRegNo());
+        renewal.setEditorName(dto.getEditorName());
+        renewal.setEditorAddress(dto.getEditorAddress());
+        renewal.setEditorEmail(dto.getEditorEmail());
+        renewal.setEditorMobile(dto.getEditorMobile());
+
+        // Child lists are inserted in JDBC batches (pooled ids, hibernate.jdbc.batch_size)
+        List<RenewalAdvisoryBoardMember> advisoryBoard = new ArrayList<>();
+        if (dto.getAdvisoryBoard() != null) {
+            for (SocietyRenewalDto.AdvisoryBoardMemberDto a : dto.getAdvisoryBoard()) {
+                RenewalAdvisoryBoardMember member = new RenewalAdvisoryBoardMember();
+                member.setRenewal(renewal);
+                member.setName(a.getName());
+                member.setDesignation(a.getDesignation());
+                member.setDepartment(a.getDepartment());
+                advisoryBoard.add(member);
+            }
+        }
+        renewal.setAdvisoryBoard(advisoryBoard);
+
+        List<RenewalCommitteeMember> committee = new ArrayList<>();
+        if (dto.getCommitteeMember() != null) {
+            for (SocietyRenewalDto.CommitteeMemberDto c : dto.getCommitteeMember()) {
+                RenewalCommitteeMember member = new RenewalCommitteeMember();
+                member.setRenewal(renewal);
+                member.setRegNo(c.getRegNo());
+                member.setName(c.getName());
+                committee.add(member);
+            }
+        }
+        renewal.setCommitteeMember(committee);
+
+        List<RenewalSocietyMember> members = new ArrayList<>();
+        if (dto.getMember() != null) {
+            for (SocietyRenewalDto.MemberDto m : dto.getMember()) {
+                RenewalSocietyMember member = new RenewalSocietyMember();
+                member.setRenewal(renewal);
+                member.setRegNo(m.getRegNo());
+                member.setName(m.getName());
+                members.add(member);
+            }
+        }
+        renewal.setMember(members);
+
+        // Previous activities belong to the year before the renewal
+        List<PreviousActivity> previousActivities = new ArrayList<>();
+        if (dto.getPreviousActivities() != null) {
+            for (SocietyRenewalDto.PreviousActivityDto p : dto.getPreviousActivities()) {
+                PreviousActivity activity = new PreviousActivity();
+                activity.setRenewal(renewal);
+                activity.setActivityDate(ActivityMonths.toDate(p.getMonth(), renewal.getYear() - 1, "previousActivities.month"));
+                activity.setActivity(p.getActivity());
+                previousActivities.add(activity);
+            }
+        }
+        renewal.setPreviousActivities(previousActivities);
+
+        List<RenewalPlanningEvent> planningEvents = new ArrayList<>();
+        if (dto.getPlanningEvents() != null) {
+            for (SocietyRenewalDto.PlanningEventDto p : dto.getPlanningEvents()) {
+                RenewalPlanningEvent event = new RenewalPlanningEvent();
+                event.setRenewal(renewal);
+                event.setEventDate(ActivityMonths.toDate(p.getMonth(), renewal.getYear(), "planningEvents.month"));
+                event.setActivity(p.getActivity());
+                planningEvents.add(event);
+            }
+        }
+        renewal.setPlanningEvents(planningEvents);
+
         return renewal;
     }
 
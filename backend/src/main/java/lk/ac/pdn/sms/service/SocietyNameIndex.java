@@ -0,0 +1,170 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.entity.Society;
+import lk.ac.pdn.sms.entity.SocietyRegistration;
+import lk.ac.pdn.sms.repository.SocietyRegistrationRepository;
+import lk.ac.pdn.sms.repository.SocietyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index of society names (registered societies and registrations
+ * still in progress) for near-duplicate detection. Similarity is the Jaccard index of
+ * the two names' trigram sets; candidates come from an inverted trigram index, so a
+ * lookup only scores names sharing at least one trigram with the query.
+ * Names are normalised with {@link Society#normalizeName(String)} first.
+ */
+@Service
+public class SocietyNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SocietyNameIndex.class);
+
+    private static final List<SocietyRegistration.ApprovalStage> OPEN_STAGES = List.of(
+            SocietyRegistration.ApprovalStage.PENDING_DEAN,
+            SocietyRegistration.ApprovalStage.PENDING_AR,
+            SocietyRegistration.ApprovalStage.PENDING_VC);
+
+    public record Match(String name, double score) {
+    }
+
+    private static final class Index {
+        private final List<String> names = new ArrayList<>();
+        private final List<long[]> trigrams = new ArrayList<>();
+        private final Map<String, Integer> byNormalizedName = new HashMap<>();
+        private final Map<Long, List<Integer>> postings = new HashMap<>();
+
+        void add(String name) {
+            String normalized = Society.normalizeName(name);
+            if (normalized == null || normalized.isEmpty() || byNormalizedName.containsKey(normalized)) {
+                return;
+            }
+            int id = names.size();
+            long[] keys = trigramsOf(normalized);
+            names.add(name);
+            trigrams.add(keys);
+            byNormalizedName.put(normalized, id);
+            for (long key : keys) {
+                postings.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+            }
+        }
+    }
+
+    private final SocietyRepository societyRepository;
+    private final SocietyRegistrationRepository registrationRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+
+    @Value("${app.society-name.similarity-threshold:0.6}")
+    private double threshold;
+
+    public SocietyNameIndex(SocietyRepository societyRepository, SocietyRegistrationRepository registrationRepository) {
+        this.societyRepository = societyRepository;
+        this.registrationRepository = registrationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialise() {
+        backfillNormalizedNames();
+        rebuild();
+    }
+
+    // Periodic rebuild also drops rejected registrations and picks up renamed societies
+    @Scheduled(fixedDelayString = "${app.society-name.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.society-name.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        Index rebuilt = new Index();
+        societyRepository.findAllNames().forEach(rebuilt::add);
+        registrationRepository.findNamesByStatusIn(OPEN_STAGES).forEach(rebuilt::add);
+
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Society name index built with {} names", rebuilt.names.size());
+    }
+
+    // Rows created before normalized_name existed
+    private void backfillNormalizedNames() {
+        for (Society society : societyRepository.findByNormalizedNameIsNull()) {
+            society.setNormalizedName(Society.normalizeName(society.getSocietyName()));
+            try {
+                societyRepository.save(society);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Society '{}' normalises to the same name as another society; left unset", society.getSocietyName());
+            }
+        }
+        for (SocietyRegistration registration : registrationRepository.findByNormalizedNameIsNull()) {
+            registration.setNormalizedName(Society.normalizeName(registration.getSocietyName()));
+            registrationRepository.save(registration);
+        }
+    }
+
+    public void add(String name) {
+        lock.writeLock().lock();
+        try {
+            index.add(name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Names at or above the similarity threshold, best first. An exact normalised match scores 1.0.
+     */
+    public List<Match> findSimilar(String name, int limit) {
+        String normalized = Society.normalizeName(name);
+        if (normalized == null || normalized.isEmpty()) {
+            return List.of();
+        }
+        long[] query = trigramsOf(normalized);
+
+        lock.readLock().lock();
+        try {
+            Integer exact = index.byNormalizedName.get(normalized);
+            if (exact != null) {
+                return List.of(new Match(index.names.get(exact), 1.0));
+            }
+
+            // Count shared trigrams per candidate via the inverted index
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (long key : query) {
+                List<Integer> ids = index.postings.get(key);
+                if (ids != null) {
+                    for (Integer id : ids) {
+                        shared.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+
+            List<Match> matches = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+                int common = candidate.getValue();
+                int union = query.length + index.trigrams.get(candidate.getKey()).length - common;
+                double score = (double) common / union;
+                if (score >= threshold) {
+                    matches.add(new Match(index.names.get(candidate.getKey()), score));
+                }
+            }
+            matches.sort(Comparator.comparingDouble(Match::score).reversed());
+            return matches.size() > limit ? matches.subList(0, limit) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Padding lets first and last words contribute boundary trigrams, as in pg_trgm
+    private static long[] trigramsOf(String normalized) {
+        return Trigrams.of("  " + normalized + " ");
+    }
+}
@@ -2,17 +2,30 @@ package lk.ac.pdn.sms.service;
 
 import lk.ac.pdn.sms.dto.SocietyRegistrationDto;
 import lk.ac.pdn.sms.dto.SocietyRenewalDto;
+import lk.ac.pdn.sms.entity.AdvisoryBoardMember;
+import lk.ac.pdn.sms.entity.CommitteeMember;
+import lk.ac.pdn.sms.entity.PlanningEvent;
 import lk.ac.pdn.sms.entity.Society;
+import lk.ac.pdn.sms.entity.SocietyMember;
 import lk.ac.pdn.sms.entity.SocietyRegistration;
+import lk.ac.pdn.sms.exception.ConflictException;
 import lk.ac.pdn.sms.repository.SocietyRepository;
 import lk.ac.pdn.sms.repository.SocietyRegistrationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -33,6 +46,26 @@ public class SocietyService {
     @Autowired
     private ActivityLogService activityLogService;
 
+    @Autowired
+    private PDFService pdfService;
+
+    @Autowired
+    private PdfCacheService pdfCacheService;
+
+    @Autowired
+    private SocietyNameIndex societyNameIndex;
+
+    private static final List<SocietyRegistration.ApprovalStage> OPEN_REGISTRATION_STAGES = List.of(
+            SocietyRegistration.ApprovalStage.PENDING_DEAN,
+            SocietyRegistration.ApprovalStage.PENDING_AR,
+            SocietyRegistration.ApprovalStage.PENDING_VC);
+
+    // Societies approved before primary_faculty was filled from the registration
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPrimaryFaculty() {
+        societyRepository.backfillPrimaryFaculty();
+    }
+
     public Page<Society> getAllSocieties(String search, String status, Integer year, Pageable pageable) {
         // Convert String status to Enum safely
         Society.SocietyStatus statusEnum = null;
@@ -50,12 +83,52 @@ public class SocietyService {
     }
 
     public SocietyRegistration registerSociety(SocietyRegistrationDto dto) {
-        if (societyRepository.findBySocietyName(dto.getSocietyName()).isPresent()) {
+        String uploadToken = UploadTokens.issue();
+        SocietyRegistration registration = registerSociety(dto, UploadTokens.hash(uploadToken));
+        registration.setUploadToken(uploadToken);
+        return registration;
+    }
+
+    /**
+     * Registers with a member upload token issued earlier (queued submissions), given by its hash.
+     */
+    public SocietyRegistration registerSociety(SocietyRegistrationDto dto, String uploadTokenHash) {
+        String normalizedName = Society.normalizeName(dto.getSocietyName());
+        if (societyRepository.existsByNormalizedName(normalizedName)) {
             throw new RuntimeException("Society with this name already exists.");
         }
+        if (registrationRepository.existsByNormalizedNameAndStatusIn(normalizedName, OPEN_REGISTRATION_STAGES)) {
+            throw new ConflictException("A registration for this society name is already in progress.");
+        }
 
         SocietyRegistration registration = convertToEntity(dto);
-        registration = registrationRepository.save(registration);
+        // Near-duplicates are not rejected, only flagged for the reviewers
+        List<SocietyNameIndex.Match> similar = societyNameIndex.findSimilar(dto.getSocietyName(), 1);
+        if (!similar.isEmpty()) {
+            registration.setPossibleDuplicateOf(similar.get(0).name());
+        }
+        registration.setUploadTokenHash(uploadTokenHash);
+        try {
+            registration = registrationRepository.saveAndFlush(registration);
+        } catch (DataIntegrityViolationException e) {
+            String cause = e.getMostSpecificCause().getMessage();
+            if (cause != null && cause.contains(SocietyRegistration.UNIQUE_OPEN_NAME)) {
+                throw new ConflictException("A registration for this society name is already in progress.");
+            }
+            throw e;
+        }
+        // Only names that were actually committed become visible to later similarity checks
+        String societyName = registration.getSocietyName();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    societyNameIndex.add(societyName);
+                }
+            });
+        } else {
+            societyNameIndex.add(societyName);
+        }
 
         emailService.sendRegistrationConfirmation(registration);
         emailService.notifyDeanForApproval(registration);
@@ -104,9 +177,124 @@ public class SocietyService {
         registration.setSeniorTreasurerAddress(dto.getSeniorTreasurerAddress());
         registration.setSeniorTreasurerMobile(dto.getSeniorTreasurerMobile());
 
+        registration.setPresidentRegNo(dto.getPresidentRegNo());
+        registration.setPresidentName(dto.getPresidentName());
+        registration.setPresidentAddress(dto.getPresidentAddress());
+        registration.setPresidentEmail(dto.getPresidentEmail());
+        registration.setPresidentMobile(dto.getPresidentMobile());
+
+        registration.setVicePresidentRegNo(dto.getVicePresidentRegNo());
+        registration.setVicePresidentName(dto.getVicePresidentName());
+        registration.setVicePresidentAddress(dto.getVicePresidentAddress());
+        registration.setVicePresidentEmail(dto.getVicePresidentEmail());
+        registration.setVicePresidentMobile(dto.getVicePresidentMobile());
+
+        registration.setJuniorTreasurerRegNo(dto.getJuniorTreasurerRegNo());
+        registration.setJuniorTreasurerName(dto.getJuniorTreasurerName());
+        registration.setJuniorTreasurerAddress(dto.getJuniorTreasurerAddress());
+        registration.setJuniorTreasurerEmail(dto.getJuniorTreasurerEmail());
+        registration.setJuniorTreasurerMobile(dto.getJuniorTreasurerMobile());
+
+        registration.setSecretaryRegNo(dto.getSecretaryRegNo());
+        registration.setSecretaryName(dto.getSecretaryName());
+        registration.setSecretaryAddress(dto.getSecretaryAddress());
+        registration.setSecretaryEmail(dto.getSecretaryEmail());
+        registration.setSecretaryMobile(dto.getSecretaryMobile());
+
+        registration.setJointSecretaryRegNo(dto.getJointSecretaryRegNo());
+        registration.setJointSecretaryName(dto.getJointSecretaryName());
+        registration.setJointSecretaryAddress(dto.getJointSecretaryAddress());
+        registration.setJointSecretaryEmail(dto.getJointSecretaryEmail());
+        registration.setJointSecretaryMobile(dto.getJointSecretaryMobile());
+
+        registration.setEditorRegNo(dto.getEditorRegNo());
+        registration.setEditorName(dto.getEditorName());
+        registration.setEditorAddress(dto.getEditorAddress());
+        registration.setEditorEmail(dto.getEditorEmail());
+        registration.setEditorMobile(dto.getEditorMobile());
+
+        // Child lists are inserted in JDBC batches (pooled ids, hibernate.jdbc.batch_size)
+        List<AdvisoryBoardMember> advisoryBoard = new ArrayList<>();
+        if (dto.getAdvisoryBoard() != null) {
+            for (SocietyRegistrationDto.AdvisoryBoardMemberDto a : dto.getAdvisoryBoard()) {
+                AdvisoryBoardMember member = new AdvisoryBoardMember();
+                member.setRegistration(registration);
+                member.setName(a.getName());
+                member.setDesignation(a.getDesignation());
+                member.setDepartment(a.getDepartment());
+                advisoryBoard.add(member);
+            }
+        }
+        registration.setAdvisoryBoard(advisoryBoard);
+
+        List<CommitteeMember> committee = new ArrayList<>();
+        if (dto.getCommitteeMember() != null) {
+            for (SocietyRegistrationDto.CommitteeMemberDto c : dto.getCommitteeMember()) {
+                CommitteeMember member = new CommitteeMember();
+                member.setRegistration(registration);
+                member.setRegNo(c.getRegNo());
+                member.setName(c.getName());
+                committee.add(member);
+            }
+        }
+        registration.setCommitteeMember(committee);
+
+        List<SocietyMember> members = new ArrayList<>();
+        if (dto.getMember() != null) {
+            for (SocietyRegistrationDto.MemberDto m : dto.getMember()) {
+                SocietyMember member = new SocietyMember();
+                member.setRegistration(registration);
+                member.setRegNo(m.getRegNo());
+                member.setName(m.getName());
+                members.add(member);
+            }
+        }
+        registration.setMember(members);
+
+        List<PlanningEvent> planningEvents = new ArrayList<>();
+        if (dto.getPlanningEvents() != null) {
+            for (SocietyRegistrationDto.PlanningEventDto p : dto.getPlanningEvents()) {
+                PlanningEvent event = new PlanningEvent();
+                event.setRegistration(registration);
+                event.setEventDate(ActivityMonths.toDate(p.getMonth(), registration.getYear(), "planningEvents.month"));
+                event.setActivity(p.getActivity());
+                planningEvents.add(event);
+            }
+        }
+        registration.setPlanningEvents(planningEvents);
+
         return registration;
     }
 
+    public Path generateRegistrationPDF(Long id) throws IOException {
+        SocietyRegistration registration = registrationRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Registration not found with id: " + id));
+        return pdfCacheService.getOrRender(PdfCacheService.REGISTRATION, id, registration.getUpdatedAt(),
+                () -> pdfService.generateRegistrationPDF(registration));
+    }
+
+    public Map<String, Object> checkSocietyName(String name) {
+        String normalizedName = Society.normalizeName(name);
+        boolean exists = normalizedName != null && !normalizedName.isEmpty()
+                && (societyRepository.existsByNormalizedName(normalizedName)
+                || registrationRepository.existsByNormalizedNameAndStatusIn(normalizedName, OPEN_REGISTRATION_STAGES));
+
+        List<Map<String, Object>> similar = new ArrayList<>();
+        for (SocietyNameIndex.Match match : societyNameIndex.findSimilar(name, 5)) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("name", match.name());
+            m.put("score", Math.round(match.score() * 100) / 100.0);
+            similar.add(m);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("normalizedName", normalizedName);
+        result.put("exists", exists);
+        result.put("isValid", normalizedName != null && !normalizedName.isEmpty() && !exists);
+        result.put("similar", similar);
+        return result;
+    }
+
     public Society getSocietyById(Long id) {
         return societyRepository.findById(id).orElseThrow(() -> new RuntimeException("Society not found"));
     }
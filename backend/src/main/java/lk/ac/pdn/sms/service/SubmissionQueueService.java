@@ -0,0 +1,309 @@
+package lk.ac.pdn.sms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lk.ac.pdn.sms.dto.EventPermissionDto;
+import lk.ac.pdn.sms.dto.SocietyRegistrationDto;
+import lk.ac.pdn.sms.dto.SocietyRenewalDto;
+import lk.ac.pdn.sms.entity.QueuedSubmission;
+import lk.ac.pdn.sms.exception.ResourceNotFoundException;
+import lk.ac.pdn.sms.exception.ServiceBusyException;
+import lk.ac.pdn.sms.repository.QueuedSubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Accept-then-process mode for submissions. The controller validates the request and
+ * {@link #enqueue} stores it in {@code queued_submissions}, so the client gets a tracking id
+ * straight away. A dispatcher thread hands queued rows, oldest first, to a small worker
+ * pool that runs the normal submit path (persistence, emails, activity log) and records
+ * the outcome. The queue is durable: a PROCESSING row is a lease that the working instance
+ * renews periodically, and rows whose lease has run out (the instance stopped or crashed)
+ * are queued again, at startup and on a schedule.
+ * When too much work is waiting, new submissions are refused with 503.
+ */
+@Service
+public class SubmissionQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionQueueService.class);
+
+    private final QueuedSubmissionRepository queueRepository;
+    private final SocietyService societyService;
+    private final RenewalService renewalService;
+    private final EventPermissionService eventPermissionService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Set<String> processing = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor workerPool;
+    private Thread dispatcherThread;
+    private volatile boolean running;
+
+    @Value("${app.submission-queue.workers:4}")
+    private int workers;
+
+    @Value("${app.submission-queue.max-pending:5000}")
+    private long maxPending;
+
+    @Value("${app.submission-queue.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.submission-queue.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${app.submission-queue.retention-days:7}")
+    private long retentionDays;
+
+    // Must be well above lease-renew-interval-ms
+    @Value("${app.submission-queue.processing-timeout-seconds:300}")
+    private long processingTimeoutSeconds;
+
+    public SubmissionQueueService(QueuedSubmissionRepository queueRepository,
+                                  SocietyService societyService,
+                                  RenewalService renewalService,
+                                  EventPermissionService eventPermissionService,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.queueRepository = queueRepository;
+        this.societyService = societyService;
+        this.renewalService = renewalService;
+        this.eventPermissionService = eventPermissionService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        requeueExpired();
+
+        AtomicInteger counter = new AtomicInteger();
+        workerPool = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(workers),
+                r -> {
+                    Thread t = new Thread(r, "submission-worker-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        running = true;
+        dispatcherThread = new Thread(this::runDispatcher, "submission-dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (dispatcherThread != null) {
+            LockSupport.unpark(dispatcherThread);
+            dispatcherThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if (workerPool != null) {
+            workerPool.shutdown();
+            workerPool.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    public QueuedSubmission enqueue(QueuedSubmission.SubmissionType type, Object dto) {
+        if (queueRepository.countByStatus(QueuedSubmission.SubmissionStatus.QUEUED) >= maxPending) {
+            throw new ServiceBusyException("Too many submissions are waiting to be processed, please retry shortly");
+        }
+
+        QueuedSubmission submission = new QueuedSubmission();
+        submission.setId(UUID.randomUUID().toString());
+        submission.setType(type);
+        try {
+            submission.setPayload(objectMapper.writeValueAsString(dto));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise submission", e);
+        }
+        // Issued now so it can be returned with the tracking id; the row only keeps the hash
+        String uploadToken = null;
+        if (type != QueuedSubmission.SubmissionType.EVENT) {
+            uploadToken = UploadTokens.issue();
+            submission.setUploadTokenHash(UploadTokens.hash(uploadToken));
+        }
+        submission = queueRepository.save(submission);
+        submission.setUploadToken(uploadToken);
+
+        if (dispatcherThread != null) {
+            LockSupport.unpark(dispatcherThread);
+        }
+        return submission;
+    }
+
+    public Map<String, Object> getStatus(String trackingId) {
+        QueuedSubmission submission = queueRepository.findById(trackingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Submission not found: " + trackingId));
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("trackingId", submission.getId());
+        status.put("type", submission.getType());
+        status.put("status", submission.getStatus());
+        status.put("resultId", submission.getResultId());
+        status.put("error", submission.getError());
+        status.put("submittedAt", submission.getCreatedAt());
+        status.put("updatedAt", submission.getUpdatedAt());
+        if (submission.getStatus() == QueuedSubmission.SubmissionStatus.QUEUED) {
+            status.put("queuePosition", queueRepository.countByStatusAndCreatedAtBefore(
+                    QueuedSubmission.SubmissionStatus.QUEUED, submission.getCreatedAt()) + 1);
+        }
+        return status;
+    }
+
+    @Scheduled(cron = "${app.submission-queue.cleanup-cron:0 15 3 * * *}")
+    public void purgeFinished() {
+        int removed = queueRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (removed > 0) {
+            log.info("Removed {} finished queued submissions", removed);
+        }
+    }
+
+    // Rows other instances are working on have fresh leases and are left alone
+    @Scheduled(fixedDelayString = "${app.submission-queue.lease-check-interval-ms:60000}")
+    public void requeueExpired() {
+        int recovered = queueRepository.requeueStale(LocalDateTime.now().minusSeconds(processingTimeoutSeconds));
+        if (recovered > 0) {
+            log.info("Re-queued {} submissions whose processing lease expired", recovered);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.submission-queue.lease-renew-interval-ms:60000}")
+    public void renewLeases() {
+        if (!processing.isEmpty()) {
+            queueRepository.renewLeases(List.copyOf(processing), LocalDateTime.now());
+        }
+    }
+
+    private void runDispatcher() {
+        while (running) {
+            try {
+                dispatch();
+            } catch (RuntimeException e) {
+                log.error("Submission dispatcher failed", e);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMs));
+        }
+    }
+
+    private void dispatch() {
+        int free;
+        while (running && (free = workers - inFlight.get()) > 0) {
+            List<String> ids = queueRepository.findIdsByStatus(QueuedSubmission.SubmissionStatus.QUEUED, PageRequest.of(0, free));
+            if (ids.isEmpty()) {
+                return;
+            }
+            for (String id : ids) {
+                if (queueRepository.claim(id, LocalDateTime.now()) == 0) {
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                processing.add(id);
+                workerPool.execute(() -> {
+                    try {
+                        process(id);
+                    } finally {
+                        processing.remove(id);
+                        inFlight.decrementAndGet();
+                        LockSupport.unpark(dispatcherThread);
+                    }
+                });
+            }
+        }
+    }
+
+    private void process(String id) {
+        QueuedSubmission submission = queueRepository.findById(id).orElse(null);
+        if (submission == null) {
+            return;
+        }
+
+        int attempts = submission.getAttempts();
+
+        try {
+            // The submit path and the COMPLETED marker commit together, so a crash cannot apply it twice.
+            // The row stays locked by holdClaim until then, so the lease cannot be taken over mid-way.
+            transactionTemplate.executeWithoutResult(tx -> {
+                if (queueRepository.holdClaim(id, attempts, LocalDateTime.now()) == 0) {
+                    throw new ClaimLostException();
+                }
+                Long resultId = submit(submission);
+                if (queueRepository.finish(id, attempts, QueuedSubmission.SubmissionStatus.COMPLETED,
+                        resultId, null, LocalDateTime.now()) == 0) {
+                    throw new ClaimLostException();
+                }
+            });
+        } catch (ClaimLostException e) {
+            log.warn("Submission {} is no longer held by attempt {} (lease expired); leaving it to the new claim", id, attempts);
+        } catch (TransientDataAccessException | CannotCreateTransactionException e) {
+            boolean retry = attempts < maxAttempts;
+            log.warn("Submission {} failed transiently (attempt {}){}", id, attempts, retry ? ", will retry" : "");
+            finishQuietly(id, attempts, retry ? QueuedSubmission.SubmissionStatus.QUEUED : QueuedSubmission.SubmissionStatus.FAILED,
+                    e.getMessage());
+        } catch (RuntimeException e) {
+            // Business rule failures (duplicate name, unknown society, ...) are final
+            finishQuietly(id, attempts, QueuedSubmission.SubmissionStatus.FAILED, e.getMessage());
+        }
+    }
+
+    // Rolls the submit transaction back when this worker no longer holds the submission
+    private static final class ClaimLostException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        ClaimLostException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private Long submit(QueuedSubmission submission) {
+        try {
+            switch (submission.getType()) {
+                case REGISTRATION:
+                    return societyService.registerSociety(
+                            objectMapper.readValue(submission.getPayload(), SocietyRegistrationDto.class),
+                            submission.getUploadTokenHash()).getId();
+                case RENEWAL:
+                    return renewalService.submitRenewal(
+                            objectMapper.readValue(submission.getPayload(), SocietyRenewalDto.class),
+                            submission.getUploadTokenHash()).getId();
+                default:
+                    return eventPermissionService.requestPermission(
+                            objectMapper.readValue(submission.getPayload(), EventPermissionDto.class)).getId();
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored submission payload is unreadable", e);
+        }
+    }
+
+    private void finishQuietly(String id, int attempts, QueuedSubmission.SubmissionStatus status, String error) {
+        try {
+            queueRepository.finish(id, attempts, status, null, error, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Could not record outcome of submission {}: {}", id, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package lk.ac.pdn.sms.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel (Varghese and Lauck): a ring of buckets, one per tick, where a timer
+ * lands in bucket {@code deadlineTick % wheelSize} with the number of full turns still to
+ * wait. Scheduling and cancelling are O(1) and only touch a lock-free queue; a single
+ * thread moves new timers into buckets and expires the current bucket on each tick, so
+ * per-timer cost is a small node and precision is one tick. Timers with a deadline already
+ * passed expire on the next tick. The expiry callback runs on the wheel thread and must
+ * not block.
+ */
+final class TimingWheel<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(TimingWheel.class);
+
+    final class Timeout {
+        private final T payload;
+        private final long deadline;
+        private long rounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+        private volatile boolean cancelled;
+
+        private Timeout(T payload, long deadline) {
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        T payload() {
+            return payload;
+        }
+
+        long deadline() {
+            return deadline;
+        }
+
+        // The node is unlinked by the wheel thread on its next tick
+        void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                cancellations.add(this);
+            }
+        }
+    }
+
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        void expire(long tickEnd) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.rounds <= 0 && timeout.deadline < tickEnd) {
+                    remove(timeout);
+                    pending.decrementAndGet();
+                    fire(timeout);
+                } else {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    private final long tickMillis;
+    private final List<Bucket> wheel;
+    private final int mask;
+    private final Consumer<T> onExpiry;
+    private final Queue<Timeout> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancellations = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread worker;
+    private volatile boolean running;
+    private long startTime;
+    private long tick;
+
+    TimingWheel(long tickMillis, int wheelSize, String threadName, Consumer<T> onExpiry) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        // Rounded up to a power of two so the bucket index is a mask
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new Bucket());
+        }
+        this.mask = size - 1;
+        this.onExpiry = onExpiry;
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+    }
+
+    void start() {
+        startTime = System.currentTimeMillis();
+        running = true;
+        worker.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Schedules {@code payload} to expire at {@code deadlineMillis} (epoch millis).
+     */
+    Timeout schedule(T payload, long deadlineMillis) {
+        Timeout timeout = new Timeout(payload, deadlineMillis);
+        pending.incrementAndGet();
+        additions.add(timeout);
+        return timeout;
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    private void run() {
+        while (running) {
+            long tickStart = startTime + tick * tickMillis;
+            long sleep = tickStart + tickMillis - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            processCancellations();
+            transferAdditions();
+            wheel.get((int) (tick & mask)).expire(tickStart + tickMillis);
+            tick++;
+        }
+    }
+
+    private void processCancellations() {
+        Timeout timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    private void transferAdditions() {
+        // Bounded per tick so a bulk load cannot stall expiry
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = additions.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.cancelled) {
+                pending.decrementAndGet();
+                continue;
+            }
+            long deadlineTick = Math.max((timeout.deadline - startTime) / tickMillis, tick);
+            timeout.rounds = (deadlineTick - tick) / wheel.size();
+            wheel.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        try {
+            onExpiry.accept(timeout.payload);
+        } catch (RuntimeException e) {
+            log.error("Timer callback failed", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package lk.ac.pdn.sms.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Case-insensitive character trigrams packed into a long (three 16-bit chars).
+ */
+final class Trigrams {
+
+    private Trigrams() {
+    }
+
+    static String normalise(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigram keys of {@code value}, in no particular order.
+     * Strings shorter than three characters have no trigrams.
+     */
+    static long[] of(String value) {
+        String s = normalise(value);
+        if (s.length() < 3) {
+            return new long[0];
+        }
+        long[] keys = new long[s.length() - 2];
+        int count = 0;
+        for (int i = 0; i + 2 < s.length(); i++) {
+            long key = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+            boolean seen = false;
+            for (int j = 0; j < count; j++) {
+                if (keys[j] == key) {
+                    seen = true;
+                    break;
+                }
+            }
+            if (!seen) {
+                keys[count++] = key;
+            }
+        }
+        return count == keys.length ? keys : Arrays.copyOf(keys, count);
+    }
+}
@@ -0,0 +1,117 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.entity.EventPermission;
+import lk.ac.pdn.sms.repository.EventPermissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Approved events from today onwards, ordered by date and start time, kept in memory so
+ * the home page and the admin dashboard do not query for them on every load. Loaded at
+ * startup, updated when an event is approved or leaves the approved state, and rolled
+ * over at midnight by dropping the previous day.
+ */
+@Service
+public class UpcomingEventsFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(UpcomingEventsFeed.class);
+
+    public static final int MAX_LIMIT = 100;
+
+    public record Item(Long id, String eventName, String societyName, LocalDate eventDate,
+                       LocalTime timeFrom, LocalTime timeTo, String place) {
+    }
+
+    private record Key(LocalDate date, LocalTime time, long id) {
+        static final Comparator<Key> ORDER = Comparator.comparing(Key::date)
+                .thenComparing(Key::time)
+                .thenComparingLong(Key::id);
+
+        static Key of(EventPermission event) {
+            return new Key(event.getEventDate(), event.getTimeFrom() != null ? event.getTimeFrom() : LocalTime.MIN, event.getId());
+        }
+
+        static Key firstOn(LocalDate date) {
+            return new Key(date, LocalTime.MIN, Long.MIN_VALUE);
+        }
+    }
+
+    private final EventPermissionRepository eventPermissionRepository;
+    private final ConcurrentSkipListMap<Key, Item> events = new ConcurrentSkipListMap<>(Key.ORDER);
+    private final Map<Long, Key> keysById = new ConcurrentHashMap<>();
+
+    public UpcomingEventsFeed(EventPermissionRepository eventPermissionRepository) {
+        this.eventPermissionRepository = eventPermissionRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        events.clear();
+        keysById.clear();
+        eventPermissionRepository.findUpcomingApprovedEvents().forEach(this::put);
+        log.info("Upcoming events feed loaded with {} events", events.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventPermissionChanged(EventPermissionChangedEvent change) {
+        EventPermission event = change.event();
+        Key old = keysById.remove(event.getId());
+        if (old != null) {
+            events.remove(old);
+        }
+        if (event.getStatus() == EventPermission.EventStatus.APPROVED && event.getEventDate() != null
+                && !event.getEventDate().isBefore(LocalDate.now())) {
+            put(event);
+        }
+    }
+
+    @Scheduled(cron = "${app.events.upcoming-rollover-cron:0 0 0 * * *}")
+    public synchronized void rollOver() {
+        Map<Key, Item> past = events.headMap(Key.firstOn(LocalDate.now()));
+        past.values().forEach(item -> keysById.remove(item.id()));
+        past.clear();
+    }
+
+    /**
+     * Up to {@code limit} approved events in the next {@code days} days (today included), soonest first.
+     */
+    public List<Item> getUpcoming(int limit, int days) {
+        LocalDate today = LocalDate.now();
+        int capped = Math.max(0, Math.min(limit, MAX_LIMIT));
+        List<Item> result = new ArrayList<>(Math.min(capped, 16));
+        if (capped == 0 || days <= 0) {
+            return result;
+        }
+        for (Item item : events.subMap(Key.firstOn(today), Key.firstOn(today.plusDays(days))).values()) {
+            result.add(item);
+            if (result.size() == capped) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void put(EventPermission event) {
+        if (event.getEventDate() == null) {
+            return;
+        }
+        Key key = Key.of(event);
+        events.put(key, new Item(event.getId(), event.getEventName(), event.getSocietyName(), event.getEventDate(),
+                event.getTimeFrom(), event.getTimeTo(), event.getPlace()));
+        keysById.put(event.getId(), key);
+    }
+}
@@ -0,0 +1,44 @@
+package lk.ac.pdn.sms.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Random tokens handed to the applicant when an application is submitted, and required
+ * for follow-up uploads to it (member CSV import). Only the SHA-256 of a token is stored.
+ */
+final class UploadTokens {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private UploadTokens() {
+    }
+
+    static String issue() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Constant-time, so the comparison does not leak how much of the hash matched
+    static boolean matches(String token, String storedHash) {
+        if (token == null || token.isBlank() || storedHash == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(hash(token.trim()).getBytes(StandardCharsets.US_ASCII),
+                storedHash.getBytes(StandardCharsets.US_ASCII));
+    }
+}
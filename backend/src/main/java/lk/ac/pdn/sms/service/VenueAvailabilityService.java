@@ -0,0 +1,161 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.entity.EventPermission;
+import lk.ac.pdn.sms.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Free/busy answers for venues over a date range. Each venue-day is summarised as two
+ * 96-bit sets of 15-minute slots, one for approved events (busy) and one for pending
+ * requests (tentative), built from {@link VenueBookingIndex} on first use and dropped
+ * when an event at that venue and date changes. Only days with bookings are kept. A month for every venue is a few
+ * thousand map lookups and bit scans; the events table is not read.
+ */
+@Service
+public class VenueAvailabilityService {
+
+    static final int SLOT_MINUTES = 15;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private record VenueDay(String venue, LocalDate date) {
+    }
+
+    private record DaySlots(BitSet busy, BitSet tentative) {
+        boolean isFree() {
+            return busy.isEmpty() && tentative.isEmpty();
+        }
+    }
+
+    private static final DaySlots FREE = new DaySlots(new BitSet(SLOTS_PER_DAY), new BitSet(SLOTS_PER_DAY));
+
+    private final VenueBookingIndex venueBookingIndex;
+    private final Map<VenueDay, DaySlots> days = new ConcurrentHashMap<>();
+
+    @Value("${app.venues.availability-max-days:93}")
+    private int maxDays;
+
+    public VenueAvailabilityService(VenueBookingIndex venueBookingIndex) {
+        this.venueBookingIndex = venueBookingIndex;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventPermissionChanged(EventPermissionChangedEvent change) {
+        EventPermission event = change.event();
+        if (event.getPlace() != null && event.getEventDate() != null) {
+            days.remove(new VenueDay(VenueBookingIndex.normaliseVenue(event.getPlace()), event.getEventDate()));
+        }
+    }
+
+    @Scheduled(cron = "${app.venues.prune-cron:0 1 0 * * *}")
+    public void prunePastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    /**
+     * Availability of one venue, or of every venue with bookings when {@code place} is blank.
+     * Days with nothing booked are omitted; each listed day has busy, tentative and free ranges.
+     */
+    public Map<String, Object> getAvailability(String place, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = from == null || from.isBefore(today) ? today : from;
+        LocalDate end = to == null ? start : to;
+        if (end.isBefore(start)) {
+            throw new BadRequestException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= maxDays) {
+            throw new BadRequestException("Date range is limited to " + maxDays + " days");
+        }
+
+        Map<String, String> venues;
+        if (place == null || place.isBlank()) {
+            venues = venueBookingIndex.getVenues();
+        } else {
+            venues = Map.of(VenueBookingIndex.normaliseVenue(place), place.trim());
+        }
+
+        List<Map<String, Object>> venueResults = new ArrayList<>();
+        for (Map.Entry<String, String> venue : venues.entrySet()) {
+            List<Map<String, Object>> dayResults = new ArrayList<>();
+            for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+                String displayName = venue.getValue();
+                // Free days are not cached: the place is caller-supplied, and a miss is one index lookup
+                DaySlots slots = days.computeIfAbsent(new VenueDay(venue.getKey(), date), key -> {
+                    DaySlots built = build(displayName, key.date());
+                    return built == FREE ? null : built;
+                });
+                if (slots != null && !slots.isFree()) {
+                    Map<String, Object> day = new LinkedHashMap<>();
+                    day.put("date", date);
+                    day.put("busy", ranges(slots.busy(), true));
+                    BitSet tentativeOnly = (BitSet) slots.tentative().clone();
+                    tentativeOnly.andNot(slots.busy());
+                    day.put("tentative", ranges(tentativeOnly, true));
+                    BitSet taken = (BitSet) slots.busy().clone();
+                    taken.or(slots.tentative());
+                    day.put("free", ranges(taken, false));
+                    dayResults.add(day);
+                }
+            }
+            Map<String, Object> venueResult = new LinkedHashMap<>();
+            venueResult.put("venue", venue.getValue());
+            venueResult.put("days", dayResults);
+            venueResults.add(venueResult);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", start);
+        result.put("to", end);
+        result.put("slotMinutes", SLOT_MINUTES);
+        result.put("venues", venueResults);
+        return result;
+    }
+
+    private DaySlots build(String place, LocalDate date) {
+        List<VenueBookingIndex.Slot> bookings = venueBookingIndex.bookingsOn(place, date);
+        if (bookings.isEmpty()) {
+            return FREE;
+        }
+        BitSet busy = new BitSet(SLOTS_PER_DAY);
+        BitSet tentative = new BitSet(SLOTS_PER_DAY);
+        for (VenueBookingIndex.Slot booking : bookings) {
+            int first = VenueBookingIndex.startMinute(booking.from()) / SLOT_MINUTES;
+            int last = (VenueBookingIndex.endMinute(booking.from(), booking.to()) + SLOT_MINUTES - 1) / SLOT_MINUTES;
+            (booking.status() == EventPermission.EventStatus.APPROVED ? busy : tentative).set(first, last);
+        }
+        return new DaySlots(busy, tentative);
+    }
+
+    // Runs of set (or clear) slots as {from, to} times
+    private static List<Map<String, LocalTime>> ranges(BitSet slots, boolean set) {
+        List<Map<String, LocalTime>> ranges = new ArrayList<>();
+        int i = set ? slots.nextSetBit(0) : slots.nextClearBit(0);
+        while (i >= 0 && i < SLOTS_PER_DAY) {
+            int j = Math.min(set ? slots.nextClearBit(i) : nextSetOrEnd(slots, i), SLOTS_PER_DAY);
+            Map<String, LocalTime> range = new LinkedHashMap<>();
+            range.put("from", slotTime(i));
+            range.put("to", slotTime(j));
+            ranges.add(range);
+            i = set ? slots.nextSetBit(j) : slots.nextClearBit(j);
+        }
+        return ranges;
+    }
+
+    private static int nextSetOrEnd(BitSet slots, int from) {
+        int next = slots.nextSetBit(from);
+        return next < 0 ? SLOTS_PER_DAY : next;
+    }
+
+    private static LocalTime slotTime(int slot) {
+        return slot >= SLOTS_PER_DAY ? LocalTime.MAX : LocalTime.of(slot * SLOT_MINUTES / 60, slot * SLOT_MINUTES % 60);
+    }
+}
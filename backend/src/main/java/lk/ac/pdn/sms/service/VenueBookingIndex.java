@@ -0,0 +1,221 @@
+package lk.ac.pdn.sms.service;
+
+import lk.ac.pdn.sms.entity.EventPermission;
+import lk.ac.pdn.sms.exception.ConflictException;
+import lk.ac.pdn.sms.repository.EventPermissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Pending and approved bookings of each venue, one {@link IntervalTree} of minute-of-day
+ * ranges per (venue, date), for conflict checks at submission and approval time.
+ * Loaded from the database at startup, kept current from {@link EventPermissionChangedEvent}s
+ * and pruned of past days after midnight. Venue names are compared case- and
+ * punctuation-insensitively. An event without times blocks the whole day.
+ */
+@Service
+public class VenueBookingIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(VenueBookingIndex.class);
+
+    static final List<EventPermission.EventStatus> ACTIVE_STATUSES = List.of(
+            EventPermission.EventStatus.PENDING_AR,
+            EventPermission.EventStatus.PENDING_VC,
+            EventPermission.EventStatus.APPROVED);
+
+    private static final int END_OF_DAY = 24 * 60;
+
+    public record Slot(Long eventId, LocalTime from, LocalTime to, EventPermission.EventStatus status) {
+    }
+
+    private record VenueDay(String venue, LocalDate date) {
+    }
+
+    private record Booking(VenueDay key, int start) {
+    }
+
+    private final EventPermissionRepository eventPermissionRepository;
+    private final Map<VenueDay, IntervalTree<EventPermission.EventStatus>> trees = new HashMap<>();
+    private final Map<Long, Booking> bookings = new HashMap<>();
+    private final Map<String, String> venueNames = new TreeMap<>();
+    // Normalised venue -> bookings held, so a venue's name goes when its last booking does
+    private final Map<String, Integer> venueBookingCounts = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public VenueBookingIndex(EventPermissionRepository eventPermissionRepository) {
+        this.eventPermissionRepository = eventPermissionRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<EventPermission> events = eventPermissionRepository.findByStatusInAndEventDateGreaterThanEqual(
+                ACTIVE_STATUSES, LocalDate.now());
+        lock.writeLock().lock();
+        try {
+            trees.clear();
+            bookings.clear();
+            venueNames.clear();
+            venueBookingCounts.clear();
+            events.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Venue booking index built with {} bookings", events.size());
+    }
+
+    // Runs before other listeners of the same event that read the index
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventPermissionChanged(EventPermissionChangedEvent change) {
+        EventPermission event = change.event();
+        lock.writeLock().lock();
+        try {
+            remove(event.getId());
+            if (ACTIVE_STATUSES.contains(event.getStatus()) && event.getEventDate() != null
+                    && !event.getEventDate().isBefore(LocalDate.now())) {
+                add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(cron = "${app.venues.prune-cron:0 1 0 * * *}")
+    public void prunePastDays() {
+        LocalDate today = LocalDate.now();
+        lock.writeLock().lock();
+        try {
+            trees.keySet().removeIf(key -> key.date().isBefore(today));
+            bookings.values().removeIf(booking -> booking.key().date().isBefore(today));
+            venueBookingCounts.clear();
+            bookings.values().forEach(booking -> venueBookingCounts.merge(booking.key().venue(), 1, Integer::sum));
+            venueNames.keySet().retainAll(venueBookingCounts.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Pending and approved bookings of {@code place} on {@code date} overlapping the given times.
+     */
+    public List<Slot> findOverlapping(String place, LocalDate date, LocalTime from, LocalTime to, Long excludeEventId) {
+        VenueDay key = new VenueDay(normaliseVenue(place), date);
+        lock.readLock().lock();
+        try {
+            IntervalTree<EventPermission.EventStatus> tree = trees.get(key);
+            if (tree == null) {
+                return List.of();
+            }
+            return tree.overlapping(startMinute(from), endMinute(from, to)).stream()
+                    .filter(interval -> excludeEventId == null || interval.id() != excludeEventId)
+                    .map(VenueBookingIndex::toSlot)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every pending and approved booking of {@code place} on {@code date}.
+     */
+    public List<Slot> bookingsOn(String place, LocalDate date) {
+        return findOverlapping(place, date, null, null, null);
+    }
+
+    /**
+     * Venues with current bookings, normalised name to the name as first written.
+     */
+    public Map<String, String> getVenues() {
+        lock.readLock().lock();
+        try {
+            return new TreeMap<>(venueNames);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rejects the event if its venue is already taken by an approved event at that time.
+     */
+    public void checkNoApprovedConflict(EventPermission event) {
+        if (event.getPlace() == null || event.getEventDate() == null) {
+            return;
+        }
+        List<Slot> approved = findOverlapping(event.getPlace(), event.getEventDate(),
+                event.getTimeFrom(), event.getTimeTo(), event.getId()).stream()
+                .filter(slot -> slot.status() == EventPermission.EventStatus.APPROVED)
+                .collect(Collectors.toList());
+        if (!approved.isEmpty()) {
+            Slot first = approved.get(0);
+            throw new ConflictException(event.getPlace() + " is already booked on " + event.getEventDate()
+                    + " from " + first.from() + " to " + first.to());
+        }
+    }
+
+    // Caller holds the write lock
+    private void add(EventPermission event) {
+        if (event.getPlace() == null || event.getEventDate() == null) {
+            return;
+        }
+        VenueDay key = new VenueDay(normaliseVenue(event.getPlace()), event.getEventDate());
+        venueNames.putIfAbsent(key.venue(), event.getPlace().trim());
+        venueBookingCounts.merge(key.venue(), 1, Integer::sum);
+        int start = startMinute(event.getTimeFrom());
+        trees.computeIfAbsent(key, k -> new IntervalTree<>())
+                .insert(start, endMinute(event.getTimeFrom(), event.getTimeTo()), event.getId(), event.getStatus());
+        bookings.put(event.getId(), new Booking(key, start));
+    }
+
+    // Caller holds the write lock
+    private void remove(Long eventId) {
+        Booking booking = bookings.remove(eventId);
+        if (booking == null) {
+            return;
+        }
+        IntervalTree<EventPermission.EventStatus> tree = trees.get(booking.key());
+        tree.remove(booking.start(), eventId);
+        if (tree.isEmpty()) {
+            trees.remove(booking.key());
+        }
+        if (venueBookingCounts.merge(booking.key().venue(), -1, Integer::sum) <= 0) {
+            venueBookingCounts.remove(booking.key().venue());
+            venueNames.remove(booking.key().venue());
+        }
+    }
+
+    private static Slot toSlot(IntervalTree.Interval<EventPermission.EventStatus> interval) {
+        LocalTime from = LocalTime.MIN.plusMinutes(interval.start());
+        LocalTime to = interval.end() >= END_OF_DAY ? LocalTime.MAX : LocalTime.MIN.plusMinutes(interval.end());
+        return new Slot(interval.id(), from, to, interval.value());
+    }
+
+    static String normaliseVenue(String place) {
+        return place == null ? "" : place.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    static int startMinute(LocalTime from) {
+        return from == null ? 0 : from.getHour() * 60 + from.getMinute();
+    }
+
+    // A missing end, or one not after the start, runs to the end of the day
+    static int endMinute(LocalTime from, LocalTime to) {
+        if (to == null || (from != null && !to.isAfter(from))) {
+            return END_OF_DAY;
+        }
+        int end = to.getHour() * 60 + to.getMinute() + (to.getSecond() > 0 ? 1 : 0);
+        return Math.max(end, startMinute(from) + 1);
+    }
+}
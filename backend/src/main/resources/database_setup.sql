@@ -26,14 +26,19 @@ CREATE TABLE IF NOT EXISTS admin_users (
 
 -- Activity Logs Table
 CREATE TABLE IF NOT EXISTS activity_logs (
-                                             id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                             id BIGINT AUTO_INCREMENT,
                                              user_id BIGINT NOT NULL, -- Logical link to admin_users or applicant reg_no
                                              user_name VARCHAR(255) NOT NULL,
                                              action VARCHAR(255) NOT NULL,
                                              target VARCHAR(255) NOT NULL,
-                                             timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                             timestamp DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+                                             PRIMARY KEY (id, timestamp),
                                              INDEX idx_timestamp (timestamp),
                                              INDEX idx_user (user_id)
+)
+-- Monthly partitions are split off pmax by the application at startup
+PARTITION BY RANGE COLUMNS(timestamp) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
 );
 
 -- Email Notifications Table
@@ -29,6 +29,9 @@ interface DataContextType {
   refreshData: () => Promise<void>;
 }
 
+// Activity log pages (of 200) loaded into the admin log view
+const MAX_LOG_PAGES = 5;
+
 const DataContext = createContext<DataContextType | undefined>(undefined);
 
 export const useData = () => {
@@ -81,9 +84,19 @@ export const DataProvider: React.FC<DataProviderProps> = ({ children }) => {
           setRenewals(allItems.filter((i: any) => i.type === 'renewal') as SocietyRenewal[]);
         }
 
-        const logsRes = await apiService.admin.getActivityLogs();
-        if(logsRes.data && logsRes.data.content) {
-          setActivityLogs(logsRes.data.content);
+        try {
+          // Keyset-paginated: follow nextCursor, newest first, up to MAX_LOG_PAGES pages
+          const logs: ActivityLog[] = [];
+          let cursor: string | undefined;
+          for (let page = 0; page < MAX_LOG_PAGES; page++) {
+            const logsRes = await apiService.admin.getActivityLogs({ cursor, size: 200 });
+            logs.push(...(logsRes.data?.items || []));
+            if (!logsRes.data?.hasMore || !logsRes.data.nextCursor) break;
+            cursor = logsRes.data.nextCursor;
+          }
+          setActivityLogs(logs);
+        } catch (logsErr) {
+          console.error("Error fetching activity logs:", logsErr);
         }
       } catch (adminErr) {
         // Not authorized for admin data, ignore
@@ -1,15 +1,19 @@
-import React from 'react';
+import React, { useEffect, useState } from 'react';
 import { Link } from 'react-router-dom';
 import { Users, Calendar, FileText, Search, TrendingUp, Clock } from 'lucide-react';
 import { useData } from '../contexts/DataContext';
+import { apiService } from '../services/api';
+import { UpcomingEvent } from '../types';
 
 const HomePage: React.FC = () => {
-  const { societies, eventPermissions, stats, loading } = useData();
+  const { societies, stats, loading } = useData();
+  const [upcomingEvents, setUpcomingEvents] = useState<UpcomingEvent[]>([]);
 
-  const upcomingEvents = eventPermissions.filter(event => {
-    const status = event.status ? (event.status as string).toUpperCase() : '';
-    return new Date(event.eventDate) > new Date() && status === 'APPROVED';
-  }).slice(0, 5);
+  useEffect(() => {
+    apiService.events.getUpcoming({ limit: 5 })
+        .then(response => setUpcomingEvents(response.data))
+        .catch(error => console.error('Error loading upcoming events:', error));
+  }, []);
 
   if (loading) {
     return (
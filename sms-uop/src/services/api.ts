@@ -56,6 +56,8 @@ export const apiService = {
   events: {
     request: (data: any) => apiClient.post('/events/request', data),
     getById: (id: string) => apiClient.get(`/events/${id}`),
+    getUpcoming: (params?: { limit?: number; days?: number }) =>
+        apiClient.get('/events/upcoming', { params }),
     downloadPDF: (id: string) => apiClient.get(`/events/download/${id}`, { responseType: 'blob' }),
     // Admin endpoints
     getPending: () => apiClient.get('/events/admin/pending'),
@@ -80,7 +82,7 @@ export const apiService = {
     getSSMonitoring: () => apiClient.get('/admin/ss/monitoring-applications'),
     // ---------------------------------------
 
-    getActivityLogs: (params?: { user?: string; action?: string; page?: number; size?: number }) =>
+    getActivityLogs: (params?: { user?: string; action?: string; target?: string; from?: string; to?: string; cursor?: string; size?: number }) =>
         apiClient.get('/admin/activity-logs', { params }),
     getSocieties: (params?: { year?: number; status?: string; page?: number; size?: number }) =>
         apiClient.get('/admin/societies', { params }),
@@ -119,6 +121,22 @@ export const apiService = {
     validateBulkEmails: (emails: string[]) =>
         apiClient.post('/validation/bulk-emails', { emails }),
   },
+
+  // Drafts (kind is 'registrations' or 'renewals')
+  drafts: {
+    create: (kind: string, data: any = {}) => apiClient.post(`/drafts/${kind}`, data),
+    get: (kind: string, id: string) => apiClient.get(`/drafts/${kind}/${id}`),
+    // Send only the changed fields; null removes a field
+    save: (kind: string, id: string, changes: any, version?: number) =>
+        apiClient.patch(`/drafts/${kind}/${id}`, changes, {
+          headers: {
+            'Content-Type': 'application/merge-patch+json',
+            ...(version !== undefined ? { 'If-Match': `"${version}"` } : {}),
+          },
+        }),
+    submit: (kind: string, id: string) => apiClient.post(`/drafts/${kind}/${id}/submit`),
+    remove: (kind: string, id: string) => apiClient.delete(`/drafts/${kind}/${id}`),
+  },
 };
 
 export default apiService;
\ No newline at end of file
@@ -86,6 +86,17 @@ export interface SocietyRegistration {
   rejectionReason?: string;
 }
 
+// Approved events from /api/events/upcoming, soonest first
+export interface UpcomingEvent {
+  id: number;
+  eventName: string;
+  societyName: string;
+  eventDate: string;
+  timeFrom?: string;
+  timeTo?: string;
+  place: string;
+}
+
 export interface SocietyRenewal extends SocietyRegistration {
   previousActivities: PlanningEvent[];
   difficulties: string;